@@ -0,0 +1,153 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.characters.events.AttackEvent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.block.regions.ActAsBlockComponent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Limits the rate at which an instigator can attack entities with health and blocks with damage types which have a
+ * limit configured, see {@link #setLimit(Prefab, float, float)}. Attacks with other damage types are not limited.
+ * <p>
+ * Each instigator has a token bucket per limited damage type, shared by all its targets. Every attack takes a token,
+ * and tokens are refilled at the configured rate up to the configured burst size. Attacks without a token left are
+ * consumed before they reach the {@link DamageAuthoritySystem} or {@link BlockDamageAuthoritySystem}, so no damage
+ * event is built for them. Attacks without instigator are not limited.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(AttackRateLimitSystem.class)
+public class AttackRateLimitSystem extends BaseComponentSystem {
+
+    /** The time in ms after which idle token buckets are removed. */
+    private static final long PRUNE_INTERVAL = 60000;
+
+    @In
+    private Time time;
+
+    /** Rate limits by damage type name, all other damage types are not limited. */
+    private final Map<String, RateLimit> limits = new HashMap<>();
+    private final Table<EntityRef, String, TokenBucket> buckets = HashBasedTable.create();
+    /** The number of dropped attacks by damage type name. */
+    private final Map<String, Long> dropped = new HashMap<>();
+
+    private long nextPrune;
+
+    @Override
+    public void shutdown() {
+        buckets.clear();
+        dropped.clear();
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_HIGH, netFilter = RegisterMode.AUTHORITY)
+    public void onAttack(AttackEvent event, EntityRef target) {
+        EntityRef instigator = event.getInstigator();
+        if (limits.isEmpty() || !instigator.exists() || !isDamageable(target)) {
+            return;
+        }
+        String damageType = DamageAuthoritySystem.getDamageType(event).getName();
+        RateLimit limit = limits.get(damageType);
+        if (limit == null) {
+            return;
+        }
+        long currentTime = time.getGameTimeInMs();
+        TokenBucket bucket = buckets.get(instigator, damageType);
+        if (bucket == null) {
+            bucket = new TokenBucket(limit, currentTime);
+            buckets.put(instigator, damageType, bucket);
+        }
+        if (!bucket.tryTake(limit, currentTime)) {
+            dropped.merge(damageType, 1L, Long::sum);
+            event.consume();
+        }
+        if (currentTime >= nextPrune) {
+            prune(currentTime);
+            nextPrune = currentTime + PRUNE_INTERVAL;
+        }
+    }
+
+    /**
+     * Sets the rate limit for attacks of the given damage type.
+     * <p>
+     * The limit applies to all attacks of an instigator together, so the burst of damage types which hit several
+     * targets at once should cover all targets of one attack.
+     *
+     * @param damageType the damage type prefab
+     * @param attacksPerSecond the rate at which an instigator can attack
+     * @param burst the number of attacks an instigator can do at once after not attacking for a while
+     */
+    public void setLimit(Prefab damageType, float attacksPerSecond, float burst) {
+        limits.put(damageType.getName(), new RateLimit(Math.max(0, attacksPerSecond), Math.max(1, burst)));
+    }
+
+    /**
+     * The number of dropped attacks by damage type name since the game started.
+     */
+    public Map<String, Long> getDroppedAttacks() {
+        return Collections.unmodifiableMap(dropped);
+    }
+
+    private static boolean isDamageable(EntityRef target) {
+        return target.hasComponent(HealthComponent.class) || target.hasComponent(BlockComponent.class)
+                || target.hasComponent(ActAsBlockComponent.class);
+    }
+
+    /**
+     * Removes the buckets of instigators which have not attacked for a while.
+     */
+    private void prune(long currentTime) {
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            if (currentTime - iterator.next().lastRefill > PRUNE_INTERVAL) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class RateLimit {
+        final float attacksPerSecond;
+        final float burst;
+
+        RateLimit(float attacksPerSecond, float burst) {
+            this.attacksPerSecond = attacksPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    private static final class TokenBucket {
+        float tokens;
+        long lastRefill;
+
+        TokenBucket(RateLimit limit, long currentTime) {
+            tokens = limit.burst;
+            lastRefill = currentTime;
+        }
+
+        boolean tryTake(RateLimit limit, long currentTime) {
+            tokens = Math.min(limit.burst, tokens + limit.attacksPerSecond * (currentTime - lastRefill) / 1000f);
+            lastRefill = currentTime;
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+    }
+}
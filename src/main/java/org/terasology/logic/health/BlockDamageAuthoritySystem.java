@@ -66,7 +66,6 @@ import java.util.stream.Stream;
  */
 @RegisterSystem
 public class BlockDamageAuthoritySystem extends BaseComponentSystem {
-    private static final float BLOCK_REGEN_SECONDS = 4.0f;
 
     @In
     private EntityManager entityManager;
@@ -80,6 +79,12 @@ public class BlockDamageAuthoritySystem extends BaseComponentSystem {
     @In
     private BlockManager blockManager;
 
+    @In
+    private HealthMetricsSystem metrics;
+
+    @In
+    private BlockHealthProfiles blockHealthProfiles;
+
     private Random random = new FastRandom();
 
     /** Consumes damage event if block is indestructible. */
@@ -245,20 +250,18 @@ public class BlockDamageAuthoritySystem extends BaseComponentSystem {
         }
     }
 
-    /** Adds health component to blocks when damaged. */
+    /**
+     * Adds health component to blocks when damaged, with the maximum health and settings of the block type.
+     *
+     * @see BlockHealthProfiles#createHealth(Block)
+     */
     @ReceiveEvent
     public void beforeDamagedEnsureHealthPresent(BeforeDamagedEvent event, EntityRef blockEntity, BlockComponent blockComponent) {
         if (!blockEntity.hasComponent(HealthComponent.class)) {
             Block type = blockComponent.getBlock();
             if (type.isDestructible()) {
-                HealthComponent healthComponent = new HealthComponent();
-                healthComponent.maxHealth = type.getHardness();
-                healthComponent.currentHealth = type.getHardness();
-                healthComponent.destroyEntityOnNoHealth = true;
-                healthComponent.regenRate = type.getHardness() / BLOCK_REGEN_SECONDS;
-                healthComponent.waitBeforeRegen = 1f;
-
-                blockEntity.addComponent(healthComponent);
+                blockEntity.addComponent(blockHealthProfiles.createHealth(type));
+                metrics.count(HealthMetricsSystem.Counter.BLOCK_HEALTH_ADDED);
             }
         }
     }
@@ -3,21 +3,28 @@
 package org.terasology.logic.health;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import org.joml.Math;
 import org.joml.Vector3i;
-import org.joml.Vector3ic;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.RenderSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.permission.PermissionManager;
 import org.terasology.logic.health.HealthComponent;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.assets.material.Material;
 import org.terasology.engine.rendering.assets.texture.Texture;
 import org.terasology.engine.rendering.assets.texture.TextureRegionAsset;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.world.WorldRenderer;
 import org.terasology.engine.rendering.world.selection.BlockSelectionRenderer;
 import org.terasology.engine.utilities.Assets;
 import org.terasology.engine.world.block.BlockComponent;
@@ -27,64 +34,140 @@ import java.util.Optional;
 
 /**
  * This system renders damage damaged blocks using the BlockSelectionRenderer.
+ * <p>
+ * Damaged blocks are tracked in a {@link DamagedBlockIndex} which is updated whenever the health of a block entity
+ * changes, so rendering does not need to query the entity manager every frame. The overlay is drawn from one mesh per
+ * damage effect number which is only rebuilt when the damaged blocks change. Only damaged blocks close to the camera
+ * and in the view frustum are rendered, see {@link #setBlockDamageOverlayLimits(float, int)}.
  */
 @RegisterSystem(RegisterMode.CLIENT)
 public class BlockDamageRenderer extends BaseComponentSystem implements RenderSystem {
 
+    private static final float DEFAULT_MAX_OVERLAY_DISTANCE = 64f;
+    private static final int DEFAULT_MAX_OVERLAYS = 512;
+
     private BlockSelectionRenderer blockSelectionRenderer;
 
+    private Material material;
+
     @In
     private EntityManager entityManager;
 
-    @Override
-    public void renderOverlay() {
-        if (blockSelectionRenderer == null) {
-            Texture texture = Assets.getTextureRegion("CoreAssets:blockDamageEffects#1").get().getTexture();
-            blockSelectionRenderer = new BlockSelectionRenderer(texture);
-        }
-        // group the entities into what texture they will use so that there is less recreating meshes (changing a
-        // texture region on the BlockSelectionRenderer
-        // will recreate the mesh to use the different UV coordinates).  Also this allows
-        Multimap<Integer, Vector3i> groupedEntitiesByEffect = ArrayListMultimap.create();
+    @In
+    private WorldRenderer worldRenderer;
 
+    private final DamagedBlockIndex damagedBlocks = new DamagedBlockIndex();
+    private final DamageOverlayMeshes overlayMeshes = new DamageOverlayMeshes();
+    private final TextureRegionAsset[] effectTextures = new TextureRegionAsset[DamagedBlockIndex.EFFECT_LEVELS];
+    private final Vector3i blockPosition = new Vector3i();
+
+    /** Damaged blocks further away from the camera than this are not rendered. */
+    private float maxOverlayDistance = DEFAULT_MAX_OVERLAY_DISTANCE;
+    /** The maximum number of rendered damaged blocks, preferring the ones closest to the camera. */
+    private int maxOverlays = DEFAULT_MAX_OVERLAYS;
+
+    @Override
+    public void postBegin() {
+        // pick up all block entities which have been loaded before this system was ready to receive events
         for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, BlockComponent.class)) {
-            HealthComponent health = entity.getComponent(HealthComponent.class);
-            if (health.currentHealth == health.maxHealth) {
-                continue;
-            }
-            BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
-            groupedEntitiesByEffect.put(getDamageEffectsNumber(health), blockComponent.getPosition(new Vector3i()));
+            updateBlock(entity, entity.getComponent(HealthComponent.class), entity.getComponent(BlockComponent.class));
         }
         for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, BlockRegionComponent.class)) {
-            HealthComponent health = entity.getComponent(HealthComponent.class);
-            if (health.currentHealth == health.maxHealth) {
-                continue;
-            }
-            BlockRegionComponent blockRegion = entity.getComponent(BlockRegionComponent.class);
-            for (Vector3ic blockPos : blockRegion.region) {
-                groupedEntitiesByEffect.put(getDamageEffectsNumber(health), new Vector3i(blockPos));
-            }
+            updateRegion(entity, entity.getComponent(HealthComponent.class),
+                    entity.getComponent(BlockRegionComponent.class));
         }
+    }
 
-        // we know that the texture will be the same for each block effect,  just different UV coordinates.
-        // Bind the texture already
-        blockSelectionRenderer.beginRenderOverlay();
+    @Override
+    public void shutdown() {
+        damagedBlocks.clear();
+        overlayMeshes.dispose();
+    }
+
+    @ReceiveEvent
+    public void onBlockHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health,
+                                       BlockComponent block) {
+        updateBlock(entity, health, block);
+    }
+
+    @ReceiveEvent
+    public void onBlockHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health,
+                                     BlockComponent block) {
+        updateBlock(entity, health, block);
+    }
 
-        for (Integer effectsNumber : groupedEntitiesByEffect.keySet()) {
-            Optional<TextureRegionAsset> texture =
-                    Assets.getTextureRegion("CoreAssets:blockDamageEffects#" + effectsNumber);
-            if (texture.isPresent()) {
-                blockSelectionRenderer.setEffectsTexture(texture.get());
-                for (Vector3i position : groupedEntitiesByEffect.get(effectsNumber)) {
-                    blockSelectionRenderer.renderMark(position);
-                }
+    @ReceiveEvent
+    public void onRegionHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health,
+                                        BlockRegionComponent blockRegion) {
+        updateRegion(entity, health, blockRegion);
+    }
+
+    @ReceiveEvent
+    public void onRegionHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health,
+                                      BlockRegionComponent blockRegion) {
+        updateRegion(entity, health, blockRegion);
+    }
+
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        damagedBlocks.remove(entity);
+    }
+
+    private void updateBlock(EntityRef entity, HealthComponent health, BlockComponent block) {
+        if (health.currentHealth == health.maxHealth) {
+            damagedBlocks.remove(entity);
+        } else {
+            damagedBlocks.putBlock(entity, block.getPosition(blockPosition), getDamageEffectsNumber(health));
+        }
+    }
+
+    private void updateRegion(EntityRef entity, HealthComponent health, BlockRegionComponent blockRegion) {
+        if (health.currentHealth == health.maxHealth) {
+            damagedBlocks.remove(entity);
+        } else {
+            damagedBlocks.putRegion(entity, blockRegion.region, getDamageEffectsNumber(health));
+        }
+    }
+
+    @Override
+    public void renderOverlay() {
+        if (damagedBlocks.size() == 0) {
+            return;
+        }
+        if (blockSelectionRenderer == null) {
+            Texture texture = Assets.getTextureRegion("CoreAssets:blockDamageEffects#1").get().getTexture();
+            blockSelectionRenderer = new BlockSelectionRenderer(texture);
+            material = Assets.getMaterial("engine:prog.defaultTextured").get();
+            for (int effectsNumber = 0; effectsNumber < effectTextures.length; effectsNumber++) {
+                Optional<TextureRegionAsset> effectTexture =
+                        Assets.getTextureRegion("CoreAssets:blockDamageEffects#" + effectsNumber);
+                effectTextures[effectsNumber] = effectTexture.orElse(null);
             }
         }
+        Camera camera = worldRenderer.getActiveCamera();
+        overlayMeshes.update(damagedBlocks, effectTextures, camera.getPosition(), maxOverlayDistance, maxOverlays);
 
+        // all damage effects share the same texture, just with different UV coordinates. Bind the texture once and
+        // draw one mesh per cell of damaged blocks in sight.
+        blockSelectionRenderer.beginRenderOverlay();
+        overlayMeshes.render(material, camera);
         blockSelectionRenderer.endRenderOverlay();
     }
 
 
+    @Command(shortDescription = "Set the max distance and number of rendered block damage overlays",
+            requiredPermission = PermissionManager.NO_PERMISSION)
+    public String setBlockDamageOverlayLimits(@CommandParam("distance") float distance, @CommandParam("count") int count) {
+        if (distance <= 0 || count < 0) {
+            return "Distance must be greater than zero and count must not be negative.";
+        }
+        maxOverlayDistance = distance;
+        maxOverlays = count;
+        // force the overlay meshes to be rebuilt with the new limits
+        overlayMeshes.dispose();
+        return "Rendering at most " + count + " block damage overlays up to " + distance + " blocks away";
+    }
+
     /**
      * Compute the damage effect number as linear mapping from damage percentage to the range [0..10].
      * <p>
@@ -0,0 +1,135 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.family.BlockFamily;
+import org.terasology.logic.health.BlockHealthProfilesComponent.BlockHealthSettings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves the health of damaged blocks per block type.
+ * <p>
+ * Blocks get their health when they are damaged for the first time. The settings of a block type are resolved once
+ * from the {@link BlockHealthProfilesComponent}s of all prefabs, so that each module can contribute the settings of its
+ * blocks in a prefab of its own. If several prefabs configure the same block family or category, the one whose URN
+ * comes last wins.
+ */
+@RegisterSystem
+@Share(BlockHealthProfiles.class)
+public class BlockHealthProfiles extends BaseComponentSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockHealthProfiles.class);
+
+    private static final BlockHealthSettings DEFAULT_BLOCK_SETTINGS = new BlockHealthSettings();
+
+    @In
+    private PrefabManager prefabManager;
+
+    private final Map<Block, BlockProfile> blockProfiles = new HashMap<>();
+
+    private Map<String, BlockHealthSettings> blockSettings;
+
+    @Override
+    public void shutdown() {
+        reload();
+    }
+
+    /**
+     * Discards the resolved settings, so that they are resolved again from the current prefabs.
+     * <p>
+     * Blocks which already have health keep their settings.
+     */
+    public void reload() {
+        blockProfiles.clear();
+        blockSettings = null;
+    }
+
+    /**
+     * A new health component with full health and the settings of the given block type.
+     */
+    public HealthComponent createHealth(Block block) {
+        BlockProfile profile = getBlock(block);
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = profile.maxHealth;
+        health.currentHealth = profile.maxHealth;
+        health.regenRate = profile.regenRate;
+        health.waitBeforeRegen = profile.waitBeforeRegen;
+        health.destroyEntityOnNoHealth = profile.destroyOnNoHealth;
+        return health;
+    }
+
+    private BlockProfile getBlock(Block block) {
+        BlockProfile blockProfile = blockProfiles.get(block);
+        if (blockProfile == null) {
+            BlockHealthSettings settings = getBlockSettings(block.getBlockFamily());
+            int maxHealth = settings.maxHealth > 0 ? settings.maxHealth : block.getHardness();
+            float regenRate = settings.repairSeconds > 0 ? maxHealth / settings.repairSeconds : 0;
+            blockProfile = new BlockProfile(maxHealth, regenRate, settings.waitBeforeRepair,
+                    settings.destroyOnNoHealth);
+            blockProfiles.put(block, blockProfile);
+        }
+        return blockProfile;
+    }
+
+    private BlockHealthSettings getBlockSettings(BlockFamily family) {
+        if (blockSettings == null) {
+            blockSettings = collectBlockSettings();
+        }
+        BlockHealthSettings settings = blockSettings.get(family.getURI().toString().toLowerCase(Locale.ROOT));
+        if (settings == null) {
+            for (String category : family.getCategories()) {
+                settings = blockSettings.get(category.toLowerCase(Locale.ROOT));
+                if (settings != null) {
+                    break;
+                }
+            }
+        }
+        return settings != null ? settings : DEFAULT_BLOCK_SETTINGS;
+    }
+
+    private Map<String, BlockHealthSettings> collectBlockSettings() {
+        List<Prefab> prefabs = new ArrayList<>();
+        prefabManager.listPrefabs(BlockHealthProfilesComponent.class).forEach(prefabs::add);
+        prefabs.sort(Comparator.comparing(prefab -> prefab.getUrn().toString()));
+        Map<String, BlockHealthSettings> settings = new HashMap<>();
+        for (Prefab prefab : prefabs) {
+            BlockHealthProfilesComponent component = prefab.getComponent(BlockHealthProfilesComponent.class);
+            component.profiles.forEach((key, value) -> {
+                if (settings.put(key.toLowerCase(Locale.ROOT), value) != null) {
+                    logger.warn("Block health profile '{}' of {} replaces the one of another prefab",
+                            key, prefab.getUrn());
+                }
+            });
+        }
+        return settings;
+    }
+
+    private static final class BlockProfile {
+        final int maxHealth;
+        final float regenRate;
+        final float waitBeforeRegen;
+        final boolean destroyOnNoHealth;
+
+        BlockProfile(int maxHealth, float regenRate, float waitBeforeRegen, boolean destroyOnNoHealth) {
+            this.maxHealth = maxHealth;
+            this.regenRate = regenRate;
+            this.waitBeforeRegen = waitBeforeRegen;
+            this.destroyOnNoHealth = destroyOnNoHealth;
+        }
+    }
+}
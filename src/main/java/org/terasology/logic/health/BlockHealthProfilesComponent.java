@@ -0,0 +1,38 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.reflection.MappedContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configures the health of damaged blocks per block family or block category. The profiles of all prefabs with this
+ * component are merged, see {@link BlockHealthProfiles}.
+ * <p>
+ * Profiles are looked up by the URI of the block family first (e.g., {@code CoreAssets:Stone}), then by the categories
+ * of the block family (e.g., {@code soil}). Blocks without a profile use the defaults of {@link BlockHealthSettings}.
+ */
+public class BlockHealthProfilesComponent implements Component {
+
+    /** The settings per block family URI or block category. */
+    public Map<String, BlockHealthSettings> profiles = new HashMap<>();
+
+    @MappedContainer
+    public static class BlockHealthSettings {
+
+        /** The maximum health of the block, or 0 to use the hardness of the block. */
+        public int maxHealth;
+
+        /** The time in seconds in which the block repairs from no health to full health. */
+        public float repairSeconds = 4f;
+
+        /** The time in seconds after the last damage before the block starts to repair. */
+        public float waitBeforeRepair = 1f;
+
+        /** Whether the block is destroyed when its health reaches zero. */
+        public boolean destroyOnNoHealth = true;
+    }
+}
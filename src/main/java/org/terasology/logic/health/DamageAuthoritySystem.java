@@ -47,6 +47,7 @@ import org.terasology.engine.utilities.random.Random;
  * <ul>
  *     <li>{@link DoDamageEvent}</li>
  *     <li>{@link BeforeDamagedEvent}</li>
+ *     <li>absorption by the shields of the entity, see {@link ShieldAuthoritySystem}</li>
  *     <li>{@link HealthComponent} is saved</li>
  *     <li>{@link OnDamagedEvent}</li>
  *     <li>{@link DestroyEvent} (if reaching 0 health)</li>
@@ -57,7 +58,7 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(DamageAuthoritySystem.class);
 
-    private static final String DELAYED_REGEN_ACTIVATION = "DamageAuthoritySystem:activateRegenEvent";
+    static final String DELAYED_REGEN_ACTIVATION = "DamageAuthoritySystem:activateRegenEvent";
 
     @In
     private Time time;
@@ -65,6 +66,12 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
     @In
     private DelayManager delayManager;
 
+    @In
+    private HealthMetricsSystem metrics;
+
+    @In
+    private ShieldAuthoritySystem shields;
+
     private Random random = new FastRandom();
 
 
@@ -82,23 +89,30 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
 
     static void damageEntity(AttackEvent event, EntityRef targetEntity) {
         int damage = 1;
-        Prefab damageType = EngineDamageTypes.PHYSICAL.get();
         // Calculate damage from item
         ItemComponent item = event.getDirectCause().getComponent(ItemComponent.class);
         if (item != null) {
             damage = item.baseDamage;
-            if (item.damageType != null) {
-                damageType = item.damageType;
-            }
         }
 
-        targetEntity.send(new DoDamageEvent(damage, damageType, event.getInstigator(), event.getDirectCause()));
+        targetEntity.send(new DoDamageEvent(damage, getDamageType(event), event.getInstigator(), event.getDirectCause()));
         // consume the event so that the health system can take priority over default engine behavior
         event.consume();
     }
 
+    /**
+     * The damage type of the item the attack is done with, or physical damage if there is none.
+     */
+    static Prefab getDamageType(AttackEvent event) {
+        ItemComponent item = event.getDirectCause().getComponent(ItemComponent.class);
+        if (item != null && item.damageType != null) {
+            return item.damageType;
+        }
+        return EngineDamageTypes.PHYSICAL.get();
+    }
+
     private void doDamage(EntityRef entity, int damageAmount, Prefab damageType, EntityRef instigator,
-                          EntityRef directCause) {
+                          EntityRef directCause, long stageTime) {
         HealthComponent health = entity.getComponent(HealthComponent.class);
         CharacterMovementComponent characterMovementComponent = entity.getComponent(CharacterMovementComponent.class);
         boolean ghost = false;
@@ -106,14 +120,22 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
             ghost = (characterMovementComponent.mode == MovementMode.GHOSTING);
         }
         if ((health != null) && !ghost) {
+            damageAmount = shields.absorb(entity, damageAmount, damageType, instigator);
+            stageTime = metrics.recordStage(HealthMetricsSystem.Stage.ABSORB_DAMAGE, stageTime);
+            if (damageAmount == 0) {
+                return;
+            }
             int cappedDamage = Math.min(health.currentHealth, damageAmount);
             health.currentHealth -= cappedDamage;
             entity.saveComponent(health);
+            stageTime = metrics.recordStage(HealthMetricsSystem.Stage.APPLY_DAMAGE, stageTime);
             entity.send(new OnDamagedEvent(damageAmount, cappedDamage, damageType, instigator));
+            stageTime = metrics.recordStage(HealthMetricsSystem.Stage.ON_DAMAGED, stageTime);
             if (health.currentHealth == 0 && health.destroyEntityOnNoHealth) {
                 entity.send(new DestroyEvent(instigator, directCause, damageType));
             } else {
                 scheduleRegenEvent(entity, health.waitBeforeRegen);
+                metrics.recordStage(HealthMetricsSystem.Stage.REGEN_RESCHEDULE, stageTime);
             }
         }
     }
@@ -146,7 +168,10 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void onDamage(DoDamageEvent event, EntityRef entity) {
+        long startTime = metrics.startTimer();
+        metrics.count(HealthMetricsSystem.Counter.DAMAGE_EVENTS);
         checkDamage(entity, event.getAmount(), event.getDamageType(), event.getInstigator(), event.getDirectCause());
+        metrics.stopTimer(HealthMetricsSystem.Timer.DAMAGE_PIPELINE, startTime);
     }
 
     private void checkDamage(EntityRef entity, int amount, Prefab damageType, EntityRef instigator,
@@ -155,15 +180,20 @@ public class DamageAuthoritySystem extends BaseComponentSystem {
         if (amount == 0) {
             return;
         }
+        long startTime = System.nanoTime();
         BeforeDamagedEvent beforeDamage = entity.send(new BeforeDamagedEvent(amount, damageType, instigator,
                 directCause));
+        long stageTime = metrics.recordStage(HealthMetricsSystem.Stage.BEFORE_DAMAGED, startTime);
         if (!beforeDamage.isConsumed()) {
             int damageAmount = TeraMath.floorToInt(beforeDamage.getResultValue());
             if (damageAmount > 0) {
-                doDamage(entity, damageAmount, damageType, instigator, directCause);
+                doDamage(entity, damageAmount, damageType, instigator, directCause, stageTime);
+                metrics.recordStage(HealthMetricsSystem.Stage.DAMAGE_TOTAL, startTime);
             } else {
                 entity.send(new DoRestoreEvent(-damageAmount, instigator));
             }
+        } else {
+            metrics.count(HealthMetricsSystem.Counter.CONSUMED_EVENTS);
         }
     }
 
@@ -0,0 +1,273 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.joml.Vector4f;
+import org.terasology.engine.rendering.assets.material.Material;
+import org.terasology.engine.rendering.assets.mesh.Mesh;
+import org.terasology.engine.rendering.assets.texture.TextureRegionAsset;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.primitives.Tessellator;
+import org.terasology.joml.geom.AABBf;
+import org.terasology.joml.geom.Rectanglef;
+import org.terasology.logic.health.DamagedBlockIndex.DamagedBlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combined overlay meshes containing a box for every damaged block, one mesh per cubic cell of
+ * {@value #CELL_SIZE} blocks. Damaged block regions are covered by a single box spanning the whole region, in the cell
+ * of their minimum corner.
+ * <p>
+ * Only damaged blocks within a maximum distance to the camera are added to the meshes, and at most a fixed number of
+ * them, preferring the ones closest to the camera. The meshes are only rebuilt when the {@link DamagedBlockIndex}
+ * changed or the camera moved a few blocks away from where the last selection was made. Drawing the damage overlay
+ * costs one draw call per cell in the view frustum, cells outside of it are skipped with all their blocks.
+ */
+class DamageOverlayMeshes {
+
+    /** The side length in blocks of the cells damaged blocks are grouped into. */
+    static final int CELL_SIZE = 32;
+    private static final int CELL_SHIFT = Integer.numberOfTrailingZeros(CELL_SIZE);
+
+    /** Slightly larger than a block to avoid z-fighting with the block faces. */
+    private static final float HALF_EXTENT = 1.001f / 2;
+    private static final Vector4f COLOR = new Vector4f(1, 1, 1, 1);
+
+    /** The distance the camera may move before the damaged blocks to render are selected again. */
+    private static final float RESELECT_DISTANCE = 4f;
+
+    private final List<Cell> cells = new ArrayList<>();
+
+    /** Mesh vertices are relative to this block position to keep float precision far away from the world origin. */
+    private final Vector3i origin = new Vector3i();
+    private final Vector3f selectionCenter = new Vector3f();
+    private int builtVersion = -1;
+
+    private final List<DamagedBlock> selected = new ArrayList<>();
+    /** The squared distance of each selected block to the camera, parallel to {@link #selected}. */
+    private float[] distances = new float[64];
+    private float[] sortedDistances = new float[64];
+    private final boolean[] hasTexture = new boolean[DamagedBlockIndex.EFFECT_LEVELS];
+
+    private final Vector3i regionMax = new Vector3i();
+    private final Vector3f min = new Vector3f();
+    private final Vector3f max = new Vector3f();
+    private final Vector3f[] vertices = {new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f()};
+    private final Vector2f[] texCoords = {new Vector2f(), new Vector2f(), new Vector2f(), new Vector2f()};
+    private final Matrix4f modelView = new Matrix4f();
+
+    /**
+     * Rebuilds the meshes if the damaged blocks changed or the camera moved too far since the last rebuild.
+     *
+     * @param damagedBlocks the damaged blocks to build meshes for
+     * @param textures the texture region for each damage effect number, may contain {@code null} for missing textures
+     * @param cameraPosition the current world position of the camera
+     * @param maxDistance the maximum distance of rendered damaged blocks to the camera
+     * @param maxCount the maximum number of rendered damaged blocks
+     */
+    void update(DamagedBlockIndex damagedBlocks, TextureRegionAsset[] textures, Vector3fc cameraPosition,
+                float maxDistance, int maxCount) {
+        if (damagedBlocks.getVersion() == builtVersion
+                && cameraPosition.distanceSquared(selectionCenter) < RESELECT_DISTANCE * RESELECT_DISTANCE) {
+            return;
+        }
+        dispose();
+        for (int effect = 0; effect < hasTexture.length; effect++) {
+            hasTexture[effect] = textures[effect] != null;
+        }
+        select(damagedBlocks.getBlocks(), hasTexture, cameraPosition, maxDistance, maxCount);
+        if (!selected.isEmpty()) {
+            origin.set(selected.get(0).position);
+        }
+        for (List<DamagedBlock> cellBlocks : groupByCell(selected).values()) {
+            Cell cell = new Cell();
+            Tessellator tessellator = new Tessellator();
+            tessellator.setColor(COLOR);
+            for (DamagedBlock block : cellBlocks) {
+                Rectanglef textureRegion = textures[block.effect].getRegion();
+                if (block.region == null) {
+                    addBox(tessellator, cell.bounds, block.position, block.position, textureRegion);
+                } else {
+                    // a single box stretched over the whole region instead of one per block of the region
+                    addBox(tessellator, cell.bounds, block.position, block.region.getMax(regionMax), textureRegion);
+                }
+            }
+            cell.mesh = tessellator.generateMesh();
+            cells.add(cell);
+        }
+        selected.clear();
+        selectionCenter.set(cameraPosition);
+        builtVersion = damagedBlocks.getVersion();
+    }
+
+    /**
+     * Selects the damaged blocks within {@code maxDistance} of the camera, and only the {@code maxCount} closest ones if
+     * there are more.
+     *
+     * @param hasTexture whether there is a texture for each damage effect number, blocks without are skipped
+     * @return the selected blocks, in no particular order
+     */
+    @VisibleForTesting
+    List<DamagedBlock> select(Collection<DamagedBlock> blocks, boolean[] hasTexture, Vector3fc cameraPosition,
+                              float maxDistance, int maxCount) {
+        selected.clear();
+        float maxDistanceSquared = maxDistance * maxDistance;
+        for (DamagedBlock block : blocks) {
+            if (!hasTexture[block.effect]) {
+                continue;
+            }
+            float distanceSquared = distanceSquared(block, cameraPosition);
+            if (distanceSquared <= maxDistanceSquared) {
+                if (selected.size() == distances.length) {
+                    distances = Arrays.copyOf(distances, distances.length * 2);
+                }
+                distances[selected.size()] = distanceSquared;
+                selected.add(block);
+            }
+        }
+        int count = selected.size();
+        if (count > maxCount) {
+            keepClosest(count, Math.max(0, maxCount));
+        }
+        return selected;
+    }
+
+    /**
+     * Reduces the selection to the {@code maxCount} blocks closest to the camera: all blocks closer than the
+     * {@code maxCount}-th closest one, and as many blocks at exactly its distance as still fit.
+     */
+    private void keepClosest(int count, int maxCount) {
+        if (maxCount == 0) {
+            selected.clear();
+            return;
+        }
+        if (sortedDistances.length < count) {
+            sortedDistances = new float[distances.length];
+        }
+        System.arraycopy(distances, 0, sortedDistances, 0, count);
+        Arrays.sort(sortedDistances, 0, count);
+        float threshold = sortedDistances[maxCount - 1];
+        int remainingAtThreshold = maxCount;
+        for (int i = 0; i < maxCount && sortedDistances[i] < threshold; i++) {
+            remainingAtThreshold--;
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            float distanceSquared = distances[i];
+            if (distanceSquared < threshold || (distanceSquared == threshold && remainingAtThreshold-- > 0)) {
+                selected.set(kept, selected.get(i));
+                distances[kept++] = distanceSquared;
+            }
+        }
+        selected.subList(kept, count).clear();
+    }
+
+    /**
+     * Groups the given blocks by the cell of their position, i.e., the minimum corner of block regions.
+     */
+    @VisibleForTesting
+    static Map<Vector3i, List<DamagedBlock>> groupByCell(List<DamagedBlock> blocks) {
+        Map<Vector3i, List<DamagedBlock>> blocksByCell = new HashMap<>();
+        for (DamagedBlock block : blocks) {
+            Vector3i cell = new Vector3i(block.position.x() >> CELL_SHIFT, block.position.y() >> CELL_SHIFT,
+                    block.position.z() >> CELL_SHIFT);
+            blocksByCell.computeIfAbsent(cell, key -> new ArrayList<>()).add(block);
+        }
+        return blocksByCell;
+    }
+
+    private static float distanceSquared(DamagedBlock block, Vector3fc cameraPosition) {
+        if (block.region == null) {
+            return cameraPosition.distanceSquared(block.position.x(), block.position.y(), block.position.z());
+        }
+        // distance to the closest point of the region
+        float dx = Math.max(0, Math.max(block.region.minX() - cameraPosition.x(), cameraPosition.x() - block.region.maxX()));
+        float dy = Math.max(0, Math.max(block.region.minY() - cameraPosition.y(), cameraPosition.y() - block.region.maxY()));
+        float dz = Math.max(0, Math.max(block.region.minZ() - cameraPosition.z(), cameraPosition.z() - block.region.maxZ()));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Draws the meshes of all cells in the view frustum with the given material, which is expected to be enabled with
+     * the effects texture bound.
+     */
+    void render(Material material, Camera camera) {
+        Vector3f cameraPosition = camera.getPosition();
+        modelView.set(camera.getViewMatrix()).translate(
+                origin.x - cameraPosition.x, origin.y - cameraPosition.y, origin.z - cameraPosition.z);
+        material.setMatrix4("projectionMatrix", camera.getProjectionMatrix());
+        material.setMatrix4("modelViewMatrix", modelView);
+        for (Cell cell : cells) {
+            if (camera.hasInSight(cell.bounds)) {
+                cell.mesh.render();
+            }
+        }
+    }
+
+    void dispose() {
+        for (Cell cell : cells) {
+            cell.mesh.dispose();
+        }
+        cells.clear();
+        builtVersion = -1;
+    }
+
+    /**
+     * Adds a box covering all blocks from {@code from} to {@code to} (inclusive) to the tessellator, and extends the
+     * world space bounds accordingly.
+     */
+    private void addBox(Tessellator tessellator, AABBf worldBounds, Vector3ic from, Vector3ic to,
+                        Rectanglef textureRegion) {
+        worldBounds.union(from.x() - HALF_EXTENT, from.y() - HALF_EXTENT, from.z() - HALF_EXTENT);
+        worldBounds.union(to.x() + HALF_EXTENT, to.y() + HALF_EXTENT, to.z() + HALF_EXTENT);
+
+        min.set(from.x() - origin.x - HALF_EXTENT, from.y() - origin.y - HALF_EXTENT, from.z() - origin.z - HALF_EXTENT);
+        max.set(to.x() - origin.x + HALF_EXTENT, to.y() - origin.y + HALF_EXTENT, to.z() - origin.z + HALF_EXTENT);
+
+        texCoords[0].set(textureRegion.minX, textureRegion.minY);
+        texCoords[1].set(textureRegion.maxX, textureRegion.minY);
+        texCoords[2].set(textureRegion.maxX, textureRegion.maxY);
+        texCoords[3].set(textureRegion.minX, textureRegion.maxY);
+
+        // top and bottom
+        addQuad(tessellator, min.x, max.y, max.z, max.x, max.y, max.z, max.x, max.y, min.z, min.x, max.y, min.z);
+        addQuad(tessellator, min.x, min.y, min.z, max.x, min.y, min.z, max.x, min.y, max.z, min.x, min.y, max.z);
+        // front and back
+        addQuad(tessellator, min.x, max.y, min.z, max.x, max.y, min.z, max.x, min.y, min.z, min.x, min.y, min.z);
+        addQuad(tessellator, max.x, max.y, max.z, min.x, max.y, max.z, min.x, min.y, max.z, max.x, min.y, max.z);
+        // left and right
+        addQuad(tessellator, min.x, max.y, max.z, min.x, max.y, min.z, min.x, min.y, min.z, min.x, min.y, max.z);
+        addQuad(tessellator, max.x, max.y, min.z, max.x, max.y, max.z, max.x, min.y, max.z, max.x, min.y, min.z);
+    }
+
+    private static final class Cell {
+        /** World space bounds of the boxes in the mesh for frustum culling. */
+        final AABBf bounds = new AABBf()
+                .setMin(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY)
+                .setMax(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+        Mesh mesh;
+    }
+
+    private void addQuad(Tessellator tessellator,
+                         float x0, float y0, float z0, float x1, float y1, float z1,
+                         float x2, float y2, float z2, float x3, float y3, float z3) {
+        vertices[0].set(x0, y0, z0);
+        vertices[1].set(x1, y1, z1);
+        vertices[2].set(x2, y2, z2);
+        vertices[3].set(x3, y3, z3);
+        tessellator.addPoly(vertices, texCoords);
+    }
+}
@@ -0,0 +1,103 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegion;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side index of all damaged blocks and block regions with their damage effect number.
+ * <p>
+ * The index is kept up to date by the {@link BlockDamageRenderer} from health component lifecycle events, so that
+ * rendering the damage overlay does not need to query the entity manager every frame.
+ */
+class DamagedBlockIndex {
+
+    /** The number of distinct damage effects, i.e., effect numbers in [0..10]. */
+    static final int EFFECT_LEVELS = 11;
+
+    private final Map<EntityRef, DamagedBlock> damagedBlocks = new HashMap<>();
+
+    /** Incremented on every change to the set of damaged blocks or their effect numbers. */
+    private int version;
+
+    /**
+     * Marks the single block at the given position as damaged with the given effect number.
+     */
+    void putBlock(EntityRef entity, Vector3ic position, int effect) {
+        DamagedBlock block = damagedBlocks.get(entity);
+        if (block != null && block.effect == effect && block.region == null && block.position.equals(position)) {
+            return;
+        }
+        remove(entity);
+        add(entity, new DamagedBlock(new Vector3i(position), null, effect));
+    }
+
+    /**
+     * Marks all blocks of the given region as damaged with the given effect number.
+     */
+    void putRegion(EntityRef entity, BlockRegion region, int effect) {
+        DamagedBlock block = damagedBlocks.get(entity);
+        if (block != null && block.effect == effect && region.equals(block.region)) {
+            return;
+        }
+        remove(entity);
+        add(entity, new DamagedBlock(new Vector3i(region.minX(), region.minY(), region.minZ()), new BlockRegion(region),
+                effect));
+    }
+
+    void remove(EntityRef entity) {
+        DamagedBlock block = damagedBlocks.remove(entity);
+        if (block != null) {
+            version++;
+        }
+    }
+
+    void clear() {
+        damagedBlocks.clear();
+        version++;
+    }
+
+    /**
+     * All damaged blocks and block regions.
+     */
+    Collection<DamagedBlock> getBlocks() {
+        return Collections.unmodifiableCollection(damagedBlocks.values());
+    }
+
+    int size() {
+        return damagedBlocks.size();
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    private void add(EntityRef entity, DamagedBlock block) {
+        damagedBlocks.put(entity, block);
+        version++;
+    }
+
+    /**
+     * A damaged block, or a damaged block region if {@link #region} is set.
+     */
+    static final class DamagedBlock {
+        /** The position of the block, or the minimum corner of the region. */
+        final Vector3ic position;
+        final BlockRegion region;
+        final int effect;
+
+        private DamagedBlock(Vector3ic position, BlockRegion region, int effect) {
+            this.position = position;
+            this.region = region;
+            this.effect = effect;
+        }
+    }
+}
@@ -4,6 +4,7 @@
 package org.terasology.logic.health;
 
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.ReceiveEvent;
 import org.terasology.engine.entitySystem.prefab.Prefab;
@@ -12,32 +13,191 @@ import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.logic.health.HealthComponent;
+import org.terasology.logic.health.event.AddMaxHealthModifierEvent;
 import org.terasology.logic.health.event.ChangeMaxHealthEvent;
 import org.terasology.logic.health.event.DoDamageEvent;
 import org.terasology.logic.health.event.MaxHealthChangedEvent;
+import org.terasology.logic.health.event.RemoveMaxHealthModifierEvent;
 import org.terasology.nui.widgets.UIIconBar;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.nui.NUIManager;
 
+import java.util.Map;
+
+/**
+ * Handles changes of the maximum health of entities.
+ * <p>
+ * The maximum health can either be set with a {@link ChangeMaxHealthEvent}, or be adjusted by a persistent stack of
+ * modifiers (see {@link AddMaxHealthModifierEvent} and {@link MaxHealthModifiersComponent}). In both cases, the
+ * {@link MaxHealthChangedEvent} is only sent if the effective maximum health actually changed, and the current health
+ * is only reduced if it exceeds the new maximum health. A maximum health set directly on the {@link HealthComponent},
+ * e.g., by the setMaxHealth command, is kept by the modifiers as well.
+ */
 @RegisterSystem(value = RegisterMode.AUTHORITY)
 public class HealthAuthoritySystem extends BaseComponentSystem {
+    public static final String MAX_HEALTH_REDUCTION_DAMAGE = "Health:maxHealthReductionDamage";
+
     @In
     NUIManager nuiManager;
     @In
     PrefabManager prefabManager;
 
+    private Prefab maxHealthReductionDamage;
+
+    @Override
+    public void initialise() {
+        maxHealthReductionDamage = prefabManager.getPrefab(MAX_HEALTH_REDUCTION_DAMAGE);
+    }
+
     /**
-     * Sends out an immutable notification event when maxHealth of a character is changed.
+     * Sets the maximum health of an entity to the result of the event.
+     * <p>
+     * If the entity has maximum health modifiers, the result replaces their base value instead.
      */
     @ReceiveEvent(priority = EventPriority.PRIORITY_TRIVIAL)
     public void changeMaxHealth(ChangeMaxHealthEvent event, EntityRef player, HealthComponent health) {
+        MaxHealthModifiersComponent modifiers = player.getComponent(MaxHealthModifiersComponent.class);
+        if (modifiers != null) {
+            modifiers.baseValue = event.getResultValue();
+            player.saveComponent(modifiers);
+            setMaxHealth(player, health, getMaxHealth(modifiers));
+        } else {
+            setMaxHealth(player, health, (int) event.getResultValue());
+        }
+    }
+
+    /**
+     * Adds a maximum health modifier, replacing the modifier with the same id.
+     * <p>
+     * The maximum health at the time the first modifier is added becomes the base value of the modifiers.
+     */
+    @ReceiveEvent
+    public void onAddMaxHealthModifier(AddMaxHealthModifierEvent event, EntityRef entity, HealthComponent health) {
+        MaxHealthModifiersComponent modifiers = entity.getComponent(MaxHealthModifiersComponent.class);
+        boolean added = modifiers == null;
+        if (added) {
+            modifiers = new MaxHealthModifiersComponent();
+            modifiers.baseValue = health.maxHealth;
+        } else {
+            removeModifier(modifiers, event.getId());
+        }
+        float value = event.getValue();
+        switch (event.getType()) {
+            case ADD:
+                modifiers.additions.put(event.getId(), value);
+                modifiers.additionSum += value;
+                break;
+            case MULTIPLY:
+                modifiers.multipliers.put(event.getId(), value);
+                modifiers.multiplierProduct *= value;
+                break;
+            case POST_ADD:
+                modifiers.postAdditions.put(event.getId(), value);
+                modifiers.postAdditionSum += value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown max health modifier type " + event.getType());
+        }
+        if (added) {
+            entity.addComponent(modifiers);
+        } else {
+            entity.saveComponent(modifiers);
+        }
+        setMaxHealth(entity, health, getMaxHealth(modifiers));
+    }
+
+    /**
+     * Removes a maximum health modifier. Once the last modifier is removed, the maximum health is back at the base value.
+     */
+    @ReceiveEvent
+    public void onRemoveMaxHealthModifier(RemoveMaxHealthModifierEvent event, EntityRef entity, HealthComponent health,
+                                          MaxHealthModifiersComponent modifiers) {
+        if (!removeModifier(modifiers, event.getId())) {
+            return;
+        }
+        if (modifiers.additions.isEmpty() && modifiers.multipliers.isEmpty() && modifiers.postAdditions.isEmpty()) {
+            entity.removeComponent(MaxHealthModifiersComponent.class);
+        } else {
+            entity.saveComponent(modifiers);
+        }
+        setMaxHealth(entity, health, getMaxHealth(modifiers));
+    }
+
+    /**
+     * Adjusts the base value of the maximum health modifiers if the maximum health was set directly on the health
+     * component, so that the modifiers result in the new maximum health and later changes of the modifiers keep it.
+     * <p>
+     * Nothing is adjusted if a multiplier of 0 makes the maximum health independent of the base value.
+     */
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity) {
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        MaxHealthModifiersComponent modifiers = entity.getComponent(MaxHealthModifiersComponent.class);
+        if (modifiers == null || modifiers.multiplierProduct == 0
+                || health.maxHealth == Math.max(1, getMaxHealth(modifiers))) {
+            return;
+        }
+        modifiers.baseValue = (health.maxHealth - modifiers.postAdditionSum) / modifiers.multiplierProduct
+                - modifiers.additionSum;
+        entity.saveComponent(modifiers);
+    }
+
+    /**
+     * Removes the modifier with the given id and recomputes the sum or product of the remaining modifiers of its group.
+     * <p>
+     * Subtracting or dividing out the removed value would let the sums drift in float precision over many additions and
+     * removals, while each group only holds a handful of modifiers.
+     *
+     * @return whether there was a modifier with the given id
+     */
+    private static boolean removeModifier(MaxHealthModifiersComponent modifiers, String id) {
+        if (modifiers.additions.remove(id) != null) {
+            modifiers.additionSum = sum(modifiers.additions);
+            return true;
+        }
+        if (modifiers.multipliers.remove(id) != null) {
+            modifiers.multiplierProduct = 1;
+            for (float multiplier : modifiers.multipliers.values()) {
+                modifiers.multiplierProduct *= multiplier;
+            }
+            return true;
+        }
+        if (modifiers.postAdditions.remove(id) != null) {
+            modifiers.postAdditionSum = sum(modifiers.postAdditions);
+            return true;
+        }
+        return false;
+    }
+
+    private static float sum(Map<String, Float> values) {
+        float sum = 0;
+        for (float value : values.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static int getMaxHealth(MaxHealthModifiersComponent modifiers) {
+        return Math.round((modifiers.baseValue + modifiers.additionSum) * modifiers.multiplierProduct
+                + modifiers.postAdditionSum);
+    }
+
+    /**
+     * Sets the maximum health of the given entity, at least 1, and sends out an immutable notification event if it
+     * changed.
+     */
+    private void setMaxHealth(EntityRef entity, HealthComponent health, int maxHealth) {
+        int newMaxHealth = Math.max(1, maxHealth);
         int oldMaxHealth = health.maxHealth;
-        health.maxHealth = (int) event.getResultValue();
-        Prefab maxHealthReductionDamagePrefab = prefabManager.getPrefab("Health:maxHealthReductionDamage");
-        player.send(new DoDamageEvent(Math.max(health.currentHealth - health.maxHealth, 0),
-                maxHealthReductionDamagePrefab));
-        player.send(new MaxHealthChangedEvent(oldMaxHealth, health.maxHealth));
-        player.saveComponent(health);
+        if (newMaxHealth == oldMaxHealth) {
+            return;
+        }
+        health.maxHealth = newMaxHealth;
+        if (health.currentHealth > newMaxHealth) {
+            entity.send(new DoDamageEvent(health.currentHealth - newMaxHealth, maxHealthReductionDamage));
+        }
+        entity.send(new MaxHealthChangedEvent(oldMaxHealth, newMaxHealth));
+        entity.saveComponent(health);
     }
 
     /**
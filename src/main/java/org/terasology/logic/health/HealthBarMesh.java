@@ -0,0 +1,231 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.rendering.assets.material.Material;
+import org.terasology.engine.rendering.assets.mesh.Mesh;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.primitives.Tessellator;
+import org.terasology.joml.geom.AABBf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * One combined mesh with the health bars of all visible damaged entities, drawn with a single draw call.
+ * <p>
+ * Bars further away than {@link #MAX_DISTANCE} or outside of the view frustum are skipped, bars further away than
+ * {@link #LOD_DISTANCE} are built without background, and at most {@link #MAX_BARS} of the closest bars are built.
+ * Each bar is turned towards the camera position, not its orientation, so the mesh is only rebuilt when a bar was
+ * added, removed, moved or changed its fill, or when the camera moved a few blocks away from where the mesh was built.
+ */
+class HealthBarMesh {
+
+    static final float MAX_DISTANCE = 48f;
+    static final float LOD_DISTANCE = 24f;
+    static final int MAX_BARS = 256;
+
+    private static final float HALF_WIDTH = 0.5f;
+    private static final float HALF_HEIGHT = 0.06f;
+    /** Height of the health bar above the entity's location. */
+    private static final float HEIGHT_OFFSET = 1.2f;
+
+    /** Moves the health quad slightly towards the camera to draw it on top of the background. */
+    private static final float FILL_DEPTH_FACTOR = 0.999f;
+
+    /** The distance the camera may move before the bars are turned towards it again. */
+    private static final float REBUILD_DISTANCE = 2f;
+
+    private static final Vector4f BACKGROUND_COLOR = new Vector4f(0.1f, 0.1f, 0.1f, 0.7f);
+    private static final Vector4f HEALTH_COLOR = new Vector4f(0.8f, 0.1f, 0.1f, 0.9f);
+
+    private Mesh mesh;
+
+    /** The bars selected in the current frame. */
+    private final List<HealthBar> bars = new ArrayList<>();
+    /** The bars the mesh was built from. */
+    private final List<HealthBar> builtBars = new ArrayList<>();
+    private final List<HealthBar> barPool = new ArrayList<>();
+    private final Comparator<HealthBar> byDistance = Comparator.comparingDouble(bar -> bar.distanceSquared);
+
+    /** Mesh vertices are relative to the camera position at the time the mesh was built. */
+    private final Vector3f origin = new Vector3f();
+
+    private final AABBf bounds = new AABBf();
+    private final Vector3f center = new Vector3f();
+    private final Vector3f right = new Vector3f();
+    private final Vector3f[] vertices = {new Vector3f(), new Vector3f(), new Vector3f(), new Vector3f()};
+    private final Vector2f[] texCoords = {new Vector2f(0, 0), new Vector2f(1, 0), new Vector2f(1, 1), new Vector2f(0, 1)};
+    private final Matrix4f modelView = new Matrix4f();
+
+    /**
+     * Selects the bars to draw and rebuilds the mesh if they differ from the bars it was built from.
+     *
+     * @param damagedEntities the damaged entities to draw bars for
+     * @param character the local player's character, which gets no bar
+     * @param camera the active camera
+     */
+    void update(Iterable<EntityRef> damagedEntities, EntityRef character, Camera camera) {
+        Vector3f cameraPosition = camera.getPosition();
+        select(damagedEntities, character, cameraPosition, camera::hasInSight);
+        if (bars.equals(builtBars) && mesh != null
+                && cameraPosition.distanceSquared(origin) < REBUILD_DISTANCE * REBUILD_DISTANCE) {
+            barPool.addAll(bars);
+            bars.clear();
+            return;
+        }
+        barPool.addAll(builtBars);
+        builtBars.clear();
+        builtBars.addAll(bars);
+        bars.clear();
+        origin.set(cameraPosition);
+        if (!builtBars.isEmpty()) {
+            build();
+        }
+    }
+
+    /**
+     * Whether there are no bars to draw.
+     */
+    boolean isEmpty() {
+        return builtBars.isEmpty();
+    }
+
+    /**
+     * Selects the bars to draw: within {@link #MAX_DISTANCE} of the camera and in sight, and only the
+     * {@link #MAX_BARS} closest ones if there are more.
+     *
+     * @return the selected bars, valid until the next call
+     */
+    @VisibleForTesting
+    List<HealthBar> select(Iterable<EntityRef> damagedEntities, EntityRef character, Vector3fc cameraPosition,
+                           Predicate<AABBf> inSight) {
+        float maxDistanceSquared = MAX_DISTANCE * MAX_DISTANCE;
+        for (EntityRef entity : damagedEntities) {
+            if (entity.equals(character)) {
+                continue;
+            }
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            if (location == null || health == null || health.maxHealth <= 0) {
+                continue;
+            }
+            HealthBar bar = barPool.isEmpty() ? new HealthBar() : barPool.remove(barPool.size() - 1);
+            location.getWorldPosition(bar.position).add(0, HEIGHT_OFFSET, 0);
+            bar.distanceSquared = bar.position.distanceSquared(cameraPosition);
+            bounds.setMin(bar.position.x - HALF_WIDTH, bar.position.y - HALF_WIDTH, bar.position.z - HALF_WIDTH)
+                    .setMax(bar.position.x + HALF_WIDTH, bar.position.y + HALF_WIDTH, bar.position.z + HALF_WIDTH);
+            if (bar.distanceSquared > maxDistanceSquared || !inSight.test(bounds)) {
+                barPool.add(bar);
+                continue;
+            }
+            bar.entity = entity;
+            bar.fill = (float) health.currentHealth / health.maxHealth;
+            bar.background = bar.distanceSquared <= LOD_DISTANCE * LOD_DISTANCE;
+            bars.add(bar);
+        }
+        if (bars.size() > MAX_BARS) {
+            bars.sort(byDistance);
+            List<HealthBar> culled = bars.subList(MAX_BARS, bars.size());
+            barPool.addAll(culled);
+            culled.clear();
+        }
+        return bars;
+    }
+
+    private void build() {
+        Tessellator tessellator = new Tessellator();
+        for (HealthBar bar : builtBars) {
+            center.set(bar.position).sub(origin);
+            // turn the bar around the vertical axis towards the camera, which is at the origin
+            right.set(-center.z, 0, center.x);
+            if (right.lengthSquared() < 1e-6f) {
+                right.set(1, 0, 0);
+            }
+            right.normalize();
+            if (bar.background) {
+                tessellator.setColor(BACKGROUND_COLOR);
+                addQuad(tessellator, -HALF_WIDTH, HALF_WIDTH);
+            }
+            center.mul(FILL_DEPTH_FACTOR);
+            tessellator.setColor(HEALTH_COLOR);
+            addQuad(tessellator, -HALF_WIDTH, -HALF_WIDTH + 2 * HALF_WIDTH * bar.fill);
+        }
+        if (mesh == null) {
+            mesh = tessellator.generateMesh();
+        } else {
+            mesh.reload(tessellator.generateMeshData());
+        }
+    }
+
+    /**
+     * Adds a quad around {@link #center} from {@code left} to {@code rightEnd} along {@link #right}.
+     */
+    private void addQuad(Tessellator tessellator, float left, float rightEnd) {
+        vertices[0].set(right).mul(left).add(center).add(0, HALF_HEIGHT, 0);
+        vertices[1].set(right).mul(rightEnd).add(center).add(0, HALF_HEIGHT, 0);
+        vertices[2].set(right).mul(rightEnd).add(center).sub(0, HALF_HEIGHT, 0);
+        vertices[3].set(right).mul(left).add(center).sub(0, HALF_HEIGHT, 0);
+        tessellator.addPoly(vertices, texCoords);
+    }
+
+    /**
+     * Draws all bars with one draw call with the given material, which is expected to be enabled with a white texture
+     * bound, so that vertex colors determine the color of the bars.
+     */
+    void render(Material material, Camera camera) {
+        Vector3f cameraPosition = camera.getPosition();
+        modelView.set(camera.getViewMatrix()).translate(
+                origin.x - cameraPosition.x, origin.y - cameraPosition.y, origin.z - cameraPosition.z);
+        material.setMatrix4("projectionMatrix", camera.getProjectionMatrix());
+        material.setMatrix4("modelViewMatrix", modelView);
+        mesh.render();
+    }
+
+    void dispose() {
+        if (mesh != null) {
+            mesh.dispose();
+            mesh = null;
+        }
+        barPool.addAll(builtBars);
+        builtBars.clear();
+    }
+
+    static final class HealthBar {
+        EntityRef entity = EntityRef.NULL;
+        /** World position of the bar's center. */
+        final Vector3f position = new Vector3f();
+        float distanceSquared;
+        float fill;
+        /** Whether the bar is drawn with background, only close bars are. */
+        boolean background;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HealthBar)) {
+                return false;
+            }
+            HealthBar other = (HealthBar) o;
+            return fill == other.fill && background == other.background && entity.equals(other.entity)
+                    && position.equals(other.position);
+        }
+
+        @Override
+        public int hashCode() {
+            return entity.hashCode();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.RenderSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.assets.material.Material;
+import org.terasology.engine.rendering.assets.texture.Texture;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.world.WorldRenderer;
+import org.terasology.engine.rendering.world.selection.BlockSelectionRenderer;
+import org.terasology.engine.utilities.Assets;
+import org.terasology.engine.world.block.BlockComponent;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This system renders health bars above damaged entities (except for blocks and the local player's character).
+ * <p>
+ * All health bars are drawn in a single pass from one combined {@link HealthBarMesh}, which is only rebuilt when the
+ * visible bars change. Damaged entities are tracked from health component lifecycle events, so no entity queries are
+ * needed per frame.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+public class HealthBarRenderer extends BaseComponentSystem implements RenderSystem {
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private WorldRenderer worldRenderer;
+    @In
+    private LocalPlayer localPlayer;
+
+    private final Set<EntityRef> damagedEntities = new HashSet<>();
+    private final HealthBarMesh barMesh = new HealthBarMesh();
+
+    private BlockSelectionRenderer overlayRenderer;
+    private Material material;
+
+    @Override
+    public void postBegin() {
+        for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class, LocationComponent.class)) {
+            update(entity, entity.getComponent(HealthComponent.class));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        damagedEntities.clear();
+        barMesh.dispose();
+    }
+
+    @ReceiveEvent(components = LocationComponent.class)
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent(components = LocationComponent.class)
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        damagedEntities.remove(entity);
+    }
+
+    private void update(EntityRef entity, HealthComponent health) {
+        if (health.currentHealth < health.maxHealth && health.maxHealth > 0
+                && !entity.hasComponent(BlockComponent.class)) {
+            damagedEntities.add(entity);
+        } else {
+            damagedEntities.remove(entity);
+        }
+    }
+
+    @Override
+    public void renderOverlay() {
+        Camera camera = worldRenderer.getActiveCamera();
+        barMesh.update(damagedEntities, localPlayer.getCharacterEntity(), camera);
+        if (barMesh.isEmpty()) {
+            return;
+        }
+        if (overlayRenderer == null) {
+            Texture white = Assets.getTexture("engine:white").get();
+            overlayRenderer = new BlockSelectionRenderer(white);
+            material = Assets.getMaterial("engine:prog.defaultTextured").get();
+        }
+        // the white texture is bound by the overlay renderer, vertex colors determine the color of the bars
+        overlayRenderer.beginRenderOverlay();
+        barMesh.render(material, camera);
+        overlayRenderer.endRenderOverlay();
+    }
+
+    @Override
+    public void renderShadows() {
+    }
+
+    @Override
+    public void renderOpaque() {
+    }
+
+    @Override
+    public void renderAlphaBlend() {
+    }
+}
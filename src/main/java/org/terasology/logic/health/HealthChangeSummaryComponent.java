@@ -0,0 +1,13 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.logic.health.event.HealthChangeSummaryEvent;
+
+/**
+ * Marks entities which receive a {@link HealthChangeSummaryEvent} once per engine update in which they were damaged
+ * or restored. Other entities are not tracked by the {@link HealthChangeSummarySystem}.
+ */
+public class HealthChangeSummaryComponent implements Component {
+}
@@ -0,0 +1,113 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.health.event.HealthChangeSummaryEvent;
+import org.terasology.logic.health.event.HealthChangedEvent;
+import org.terasology.logic.health.event.OnDamagedEvent;
+import org.terasology.logic.health.event.OnRestoredEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces all damage and restoration of an entity within one engine update into a single
+ * {@link HealthChangeSummaryEvent}, sent at the beginning of the next update.
+ * <p>
+ * Only entities with a {@link HealthChangeSummaryComponent} are tracked, so entities nobody listens to for summaries
+ * cost nothing on the damage and restoration path.
+ */
+@RegisterSystem
+public class HealthChangeSummarySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private Map<EntityRef, Summary> summaries = new HashMap<>();
+    /** Summaries being sent, swapped with {@link #summaries} so that listeners may damage or restore entities. */
+    private Map<EntityRef, Summary> sending = new HashMap<>();
+    private final List<Summary> summaryPool = new ArrayList<>();
+
+    @Override
+    public void shutdown() {
+        summaries.clear();
+    }
+
+    @ReceiveEvent(components = HealthChangeSummaryComponent.class, priority = EventPriority.PRIORITY_TRIVIAL)
+    public void onDamaged(OnDamagedEvent event, EntityRef entity) {
+        Summary summary = getSummary(entity, event);
+        summary.totalDamage += event.getHealthChange();
+        summary.hitCount++;
+    }
+
+    @ReceiveEvent(components = HealthChangeSummaryComponent.class, priority = EventPriority.PRIORITY_TRIVIAL)
+    public void onRestored(OnRestoredEvent event, EntityRef entity) {
+        Summary summary = getSummary(entity, event);
+        summary.totalRestore += event.getHealthChange();
+        summary.restoreCount++;
+    }
+
+    private Summary getSummary(EntityRef entity, HealthChangedEvent event) {
+        Summary summary = summaries.get(entity);
+        if (summary == null) {
+            summary = summaryPool.isEmpty() ? new Summary() : summaryPool.remove(summaryPool.size() - 1);
+            summaries.put(entity, summary);
+        }
+        EntityRef instigator = event.getInstigator();
+        if (instigator != null && instigator.exists()) {
+            if (summary.instigators == null) {
+                summary.instigators = new HashSet<>();
+            }
+            summary.instigators.add(instigator);
+        }
+        return summary;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<EntityRef, Summary> toSend = summaries;
+        summaries = sending;
+        sending = toSend;
+        for (Map.Entry<EntityRef, Summary> entry : toSend.entrySet()) {
+            Summary summary = entry.getValue();
+            if (entry.getKey().exists()) {
+                // the set of instigators is handed over to the event, the summary starts a new one when needed
+                Set<EntityRef> instigators = summary.instigators != null
+                        ? Collections.unmodifiableSet(summary.instigators) : Collections.emptySet();
+                entry.getKey().send(new HealthChangeSummaryEvent(summary.totalDamage, summary.totalRestore,
+                        summary.hitCount, summary.restoreCount, instigators));
+            }
+            summary.reset();
+            summaryPool.add(summary);
+        }
+        toSend.clear();
+    }
+
+    private static final class Summary {
+        int totalDamage;
+        int totalRestore;
+        int hitCount;
+        int restoreCount;
+        /** The instigators, or null if there are none yet. */
+        Set<EntityRef> instigators;
+
+        void reset() {
+            totalDamage = 0;
+            totalRestore = 0;
+            hitCount = 0;
+            restoreCount = 0;
+            instigators = null;
+        }
+    }
+}
@@ -10,13 +10,19 @@ import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.logic.health.HealthComponent;
+import org.terasology.logic.health.event.HealthConfigUpdateEvent;
+import org.terasology.logic.health.event.HealthUpdateEvent;
 import org.terasology.logic.health.event.OnDamagedEvent;
 import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.logic.players.PlayerCharacterComponent;
 import org.terasology.engine.math.Direction;
+import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.nui.NUIManager;
+import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.rendering.nui.layers.hud.DirectionalDamageOverlay;
+import org.terasology.rendering.nui.layers.hud.FloatingDamageNumbers;
 
 @RegisterSystem(RegisterMode.CLIENT)
 public class HealthClientSystem extends BaseComponentSystem {
@@ -26,13 +32,57 @@ public class HealthClientSystem extends BaseComponentSystem {
     @In
     private NUIManager nuiManager;
 
+    @In
+    private LocalPlayer localPlayer;
+
     private DirectionalDamageOverlay directionalDamageOverlay;
+    private FloatingDamageNumbers floatingDamageNumbers;
+
+    private final Vector3f damagePosition = new Vector3f();
 
     @Override
     public void initialise() {
         nuiManager.getHUD().addHUDElement("healthHud");
         directionalDamageOverlay = (DirectionalDamageOverlay) nuiManager.getHUD().addHUDElement(
                 "directionalDamageOverlay");
+        floatingDamageNumbers = (FloatingDamageNumbers) nuiManager.getHUD().addHUDElement("floatingDamageNumbers");
+    }
+
+    /**
+     * Applies health updates replicated by the {@link HealthReplicationSystem}.
+     */
+    @ReceiveEvent(components = ClientComponent.class, netFilter = RegisterMode.REMOTE_CLIENT)
+    public void onHealthUpdate(HealthUpdateEvent event, EntityRef client) {
+        EntityRef entity = event.getEntity();
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        if (health != null) {
+            health.currentHealth = event.getCurrentHealth();
+            health.maxHealth = event.getMaxHealth();
+            entity.saveComponent(health);
+        }
+    }
+
+    @ReceiveEvent(netFilter = RegisterMode.REMOTE_CLIENT)
+    public void onHealthConfigUpdate(HealthConfigUpdateEvent event, EntityRef entity, HealthComponent health) {
+        health.fallingDamageSpeedThreshold = event.getFallingDamageSpeedThreshold();
+        health.horizontalDamageSpeedThreshold = event.getHorizontalDamageSpeedThreshold();
+        health.excessSpeedDamageMultiplier = event.getExcessSpeedDamageMultiplier();
+        health.regenRate = event.getRegenRate();
+        health.waitBeforeRegen = event.getWaitBeforeRegen();
+        entity.saveComponent(health);
+    }
+
+    /**
+     * Shows the damage dealt to any entity but the local player's character as a floating number above it.
+     * <p>
+     * Damaged blocks show their health with cracks instead, see {@link BlockDamageRenderer}.
+     */
+    @ReceiveEvent
+    public void onDamagedShowNumber(OnDamagedEvent event, EntityRef entity, LocationComponent locationComponent) {
+        if (event.getHealthChange() > 0 && !entity.equals(localPlayer.getCharacterEntity())
+                && !entity.hasComponent(BlockComponent.class)) {
+            floatingDamageNumbers.show(entity, event.getHealthChange(), locationComponent.getWorldPosition(damagePosition));
+        }
     }
 
     @ReceiveEvent(components = PlayerCharacterComponent.class)
@@ -30,10 +30,12 @@ import org.terasology.engine.logic.permission.PermissionManager;
 import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.registry.Share;
+import org.terasology.engine.rendering.nui.NUIManager;
 import org.terasology.engine.utilities.Assets;
 import org.terasology.logic.health.event.DoDamageEvent;
 import org.terasology.logic.health.event.DoRestoreEvent;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Optional;
 
@@ -45,6 +47,33 @@ public class HealthCommands extends BaseComponentSystem {
     @In
     private PrefabManager prefabManager;
 
+    @In
+    private RegenAuthoritySystem regenAuthoritySystem;
+
+    @In
+    private HealthReplicationSystem healthReplicationSystem;
+
+    @In
+    private AttackRateLimitSystem attackRateLimitSystem;
+
+    @In
+    private HealthMetricsSystem healthMetricsSystem;
+
+    @In
+    private HealthSoakTestSystem healthSoakTestSystem;
+
+    @In
+    private HealthEventRecorder healthEventRecorder;
+
+    @In
+    private HealthEventReplayer healthEventReplayer;
+
+    @In
+    private HealthSnapshotExporter healthSnapshotExporter;
+
+    @In
+    private NUIManager nuiManager;
+
     @Command(value = "kill", shortDescription = "Reduce the player's health to zero", runOnServer = true,
             requiredPermission = PermissionManager.NO_PERMISSION)
     public void killCommand(@Sender EntityRef client) {
@@ -175,6 +204,166 @@ public class HealthCommands extends BaseComponentSystem {
         return "Health regeneration changed from " + oldRegenRate + " to " + rate;
     }
 
+    @Command(shortDescription = "Set the min time between health updates of regenerating entities", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setHealthSyncInterval(@CommandParam("milliseconds") int interval) {
+        regenAuthoritySystem.setHealthSyncInterval(interval);
+        return "Health of regenerating entities is synced every " + regenAuthoritySystem.getHealthSyncInterval() + "ms";
+    }
+
+    @Command(shortDescription = "Set the distances up to which health is replicated at full and reduced rate",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setHealthRelevanceRadii(@CommandParam("fullRate") float fullRate,
+                                          @CommandParam("reducedRate") float reducedRate) {
+        healthReplicationSystem.setRelevanceRadii(fullRate, reducedRate);
+        return "Health is replicated at full rate up to " + healthReplicationSystem.getFullRateRadius()
+                + " blocks and at reduced rate up to " + healthReplicationSystem.getReducedRateRadius() + " blocks";
+    }
+
+    @Command(shortDescription = "Limit the attacks per second of an instigator for a damage type", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setAttackRateLimit(@CommandParam("damageType") String damageType,
+                                     @CommandParam("attacksPerSecond") float attacksPerSecond,
+                                     @CommandParam("burst") float burst) {
+        Prefab damageTypePrefab = prefabManager.getPrefab(damageType);
+        if (damageTypePrefab != null) {
+            attackRateLimitSystem.setLimit(damageTypePrefab, attacksPerSecond, burst);
+            return "Attacks of type " + damageTypePrefab.getName() + " limited to " + attacksPerSecond
+                    + " per second with bursts of " + burst;
+        } else {
+            return "Specified damage type does not exist.";
+        }
+    }
+
+    @Command(shortDescription = "Show the number of attacks dropped by the rate limit", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String showDroppedAttacks() {
+        return "Dropped attacks: " + attackRateLimitSystem.getDroppedAttacks();
+    }
+
+    @Command(shortDescription = "Enable or disable the collection of health metrics", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setHealthMetricsEnabled(@CommandParam("enabled") boolean enabled) {
+        healthMetricsSystem.setEnabled(enabled);
+        return "Health metrics " + (enabled ? "enabled" : "disabled");
+    }
+
+    @Command(shortDescription = "Show the health metrics of the last second", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String showHealthMetrics() {
+        if (!healthMetricsSystem.isEnabled()) {
+            return "Health metrics are disabled, enable them with setHealthMetricsEnabled true";
+        }
+        return healthMetricsSystem.getSummary();
+    }
+
+    @Command(shortDescription = "Show the latency percentiles of the damage and restore pipeline stages",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String showHealthLatencies() {
+        return healthMetricsSystem.formatLatencies();
+    }
+
+    @Command(shortDescription = "Reset the latencies of the damage and restore pipeline stages", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String resetHealthLatencies() {
+        healthMetricsSystem.resetLatencies();
+        return "Health pipeline latencies reset";
+    }
+
+    @Command(shortDescription = "Soak test the health systems with synthetic entities and events", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String healthSoakTest(@CommandParam("entities") int entities,
+                                 @CommandParam("damagePerSecond") float damagePerSecond,
+                                 @CommandParam("restorePerSecond") float restorePerSecond,
+                                 @CommandParam("regenPerSecond") float regenPerSecond,
+                                 @CommandParam("dotEntities") int dotEntities,
+                                 @CommandParam("seconds") float seconds) {
+        if (healthSoakTestSystem.start(entities, damagePerSecond, restorePerSecond, regenPerSecond, dotEntities,
+                seconds)) {
+            return "Health soak test started, see showHealthSoakTestReport after " + seconds + "s";
+        }
+        return "A health soak test is already running";
+    }
+
+    @Command(shortDescription = "Show the report of the last health soak test", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String showHealthSoakTestReport() {
+        return healthSoakTestSystem.getLastReport();
+    }
+
+    @Command(shortDescription = "Record all health events into a file", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String startHealthRecording(@CommandParam("name") String name) {
+        try {
+            healthEventRecorder.start(name);
+            return "Recording health events to " + name;
+        } catch (IOException | IllegalArgumentException e) {
+            return "Failed to start recording: " + e.getMessage();
+        }
+    }
+
+    @Command(shortDescription = "Stop recording health events", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String stopHealthRecording() {
+        if (!healthEventRecorder.isRecording()) {
+            return "Not recording health events";
+        }
+        return "Recorded " + healthEventRecorder.stop() + " health events";
+    }
+
+    @Command(shortDescription = "Replay a health event recording as fast as possible", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String replayHealthRecording(@CommandParam("name") String name,
+                                        @CommandParam("eventsPerUpdate") int eventsPerUpdate) {
+        try {
+            healthEventReplayer.start(name, eventsPerUpdate);
+            return "Replaying health events from " + name + ", see showHealthReplayReport when done";
+        } catch (IOException | IllegalArgumentException e) {
+            return "Failed to replay recording: " + e.getMessage();
+        }
+    }
+
+    @Command(shortDescription = "Show the report of the last health event replay", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String showHealthReplayReport() {
+        return healthEventReplayer.getLastReport();
+    }
+
+    @Command(shortDescription = "Periodically export the health of all entities to snapshot files", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String startHealthSnapshots(@CommandParam("name") String name,
+                                       @CommandParam("intervalSeconds") float intervalSeconds) {
+        try {
+            healthSnapshotExporter.start(name, intervalSeconds);
+            return "Exporting health snapshots " + name + " every " + intervalSeconds + "s";
+        } catch (IllegalArgumentException e) {
+            return "Failed to start exporting health snapshots: " + e.getMessage();
+        }
+    }
+
+    @Command(shortDescription = "Stop exporting health snapshots", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String stopHealthSnapshots() {
+        if (!healthSnapshotExporter.isRunning()) {
+            return "Not exporting health snapshots";
+        }
+        healthSnapshotExporter.stop();
+        return "Exported " + healthSnapshotExporter.getWrittenSnapshots() + " health snapshots, "
+                + healthSnapshotExporter.getSkippedSnapshots() + " skipped";
+    }
+
+    @Command(shortDescription = "Toggle the health metrics debug overlay",
+            requiredPermission = PermissionManager.NO_PERMISSION)
+    public String toggleHealthMetricsOverlay() {
+        if (nuiManager.getHUD().getHUDElement("Health:healthMetricsOverlay") != null) {
+            nuiManager.getHUD().removeHUDElement("Health:healthMetricsOverlay");
+            return "Health metrics overlay hidden";
+        }
+        nuiManager.getHUD().addHUDElement("Health:healthMetricsOverlay");
+        healthMetricsSystem.setEnabled(true);
+        return "Health metrics overlay shown";
+    }
+
     @Command(shortDescription = "Show your health", requiredPermission = PermissionManager.NO_PERMISSION)
     public String showHealth(@Sender EntityRef client) {
         ClientComponent clientComp = client.getComponent(ClientComponent.class);
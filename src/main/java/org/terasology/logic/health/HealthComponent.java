@@ -22,28 +22,31 @@ import org.terasology.nui.properties.TextField;
 /**
  * Provides Health to entity attached with HealthComponent. Contains the parameters
  * required for all health related events.
+ * <p>
+ * The fields are only replicated with the initial state of an entity, later changes are replicated by the
+ * {@link HealthReplicationSystem}.
  */
 public class HealthComponent implements Component {
 
     /** Maximum allowed health, capped to this if exceeding this value. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public int maxHealth = 20;
 
     /** Falling speed threshold above which damage is inflicted to entity. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public float fallingDamageSpeedThreshold = 20;
 
     /** Horizontal speed threshold above which damage is inflicted to entity. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public float horizontalDamageSpeedThreshold = 20;
 
     /** The multiplier used to calculate damage when horizontal or vertical threshold is crossed. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public float excessSpeedDamageMultiplier = 10f;
 
 
     /** The current value of health. */
-    @Replicate
+    @Replicate(initialOnly = true)
     @TextField
     public int currentHealth = 20;
 
@@ -53,11 +56,11 @@ public class HealthComponent implements Component {
     // Regen Info
 
     /** Amount of health restored in each regeneration tick. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public float regenRate;
 
     /** Time delay before regeneration starts. */
-    @Replicate
+    @Replicate(initialOnly = true)
     public float waitBeforeRegen;
 
     /** Next tick time that will trigger regeneration. */
@@ -0,0 +1,379 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.logic.health.event.ActivateRegenEvent;
+import org.terasology.logic.health.event.AddMaxHealthModifierEvent;
+import org.terasology.logic.health.event.AddShieldEvent;
+import org.terasology.logic.health.event.ChangeMaxHealthEvent;
+import org.terasology.logic.health.event.DeactivateRegenEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.DoRestoreEvent;
+import org.terasology.logic.health.event.RemoveMaxHealthModifierEvent;
+import org.terasology.logic.health.event.RemoveShieldEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the health events sent on the authority into a compact binary file, see {@link HealthEventRecording}.
+ * <p>
+ * Events are recorded before any other system handles them, so that consumed events are part of the recording as
+ * well. Recordings can be replayed with the {@link HealthEventReplayer}.
+ * <p>
+ * Only events sent from outside of the health systems are recorded. Events sent while another recorded event is
+ * handled, e.g., the deactivation of the base regeneration on damage, or while the delayed regeneration activation of
+ * the {@link DamageAuthoritySystem} is handled, are derived from recorded events. They are sent again when the
+ * recording is replayed and are thus not recorded. Events sent by the replayer are not recorded either.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthEventRecorder.class)
+public class HealthEventRecorder extends BaseComponentSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthEventRecorder.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The priority of the handlers marking the end of the handling of an event, after all other handlers of it.
+     */
+    private static final int AFTER_ALL = EventPriority.PRIORITY_TRIVIAL - 1;
+
+    @In
+    private Time time;
+    @In
+    private HealthEventReplayer replayer;
+
+    private DataOutputStream out;
+    private Path path;
+    private long lastEventTime;
+    private long recordedEvents;
+    /** The number of recorded events and delayed actions of the health systems currently being handled. */
+    private int handlingDepth;
+
+    private final Map<EntityRef, Integer> entityIndices = new HashMap<>();
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+
+    @Override
+    public void shutdown() {
+        stop();
+    }
+
+    public boolean isRecording() {
+        return out != null;
+    }
+
+    /**
+     * Starts recording into the recording with the given name, replacing an existing recording of that name.
+     *
+     * @throws IllegalArgumentException if the name is not a plain file name, see {@link HealthEventRecording#getPath}
+     */
+    public void start(String name) throws IOException {
+        Path newPath = HealthEventRecording.getPath(name);
+        stop();
+        path = newPath;
+        Files.createDirectories(path.getParent());
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        out.writeInt(HealthEventRecording.MAGIC);
+        out.writeInt(HealthEventRecording.VERSION);
+        lastEventTime = time.getGameTimeInMs();
+        recordedEvents = 0;
+        logger.info("Recording health events to {}", path);
+    }
+
+    /**
+     * Stops the current recording, if any.
+     *
+     * @return the number of recorded events
+     */
+    public long stop() {
+        if (isRecording()) {
+            try {
+                out.close();
+                logger.info("Recorded {} health events to {}", recordedEvents, path);
+            } catch (IOException e) {
+                logger.error("Failed to finish health event recording {}", path, e);
+            }
+            out = null;
+        }
+        entityIndices.clear();
+        stringIndices.clear();
+        return recordedEvents;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onDelayedAction(DelayedActionTriggeredEvent event, EntityRef entity) {
+        if (event.getActionId().equals(DamageAuthoritySystem.DELAYED_REGEN_ACTIVATION)) {
+            handlingDepth++;
+        }
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterDelayedAction(DelayedActionTriggeredEvent event, EntityRef entity) {
+        if (event.getActionId().equals(DamageAuthoritySystem.DELAYED_REGEN_ACTIVATION)) {
+            handlingDepth--;
+        }
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onDamage(DoDamageEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int damageType = stringIndex(event.getDamageType());
+                int instigator = event.getInstigator().exists() ? entityIndex(event.getInstigator())
+                        : HealthEventRecording.NONE;
+                writeEventStart(HealthEventRecording.DAMAGE, entityIndex);
+                out.writeInt(event.getAmount());
+                out.writeInt(damageType);
+                out.writeInt(instigator);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterDamage(DoDamageEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onRestore(DoRestoreEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                writeEventStart(HealthEventRecording.RESTORE, entityIndex(entity));
+                out.writeInt(event.getAmount());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterRestore(DoRestoreEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onActivateRegen(ActivateRegenEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.id);
+                writeEventStart(HealthEventRecording.ACTIVATE_REGEN, entityIndex);
+                out.writeInt(id);
+                out.writeFloat(event.value);
+                out.writeFloat(event.endTime);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterActivateRegen(ActivateRegenEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onDeactivateRegen(DeactivateRegenEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.id);
+                writeEventStart(HealthEventRecording.DEACTIVATE_REGEN, entityIndex);
+                out.writeInt(id);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterDeactivateRegen(DeactivateRegenEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onChangeMaxHealth(ChangeMaxHealthEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                writeEventStart(HealthEventRecording.CHANGE_MAX_HEALTH, entityIndex(entity));
+                out.writeFloat(event.getBaseValue());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterChangeMaxHealth(ChangeMaxHealthEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onAddShield(AddShieldEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.getId());
+                int damageType = stringIndex(event.getDamageType());
+                writeEventStart(HealthEventRecording.ADD_SHIELD, entityIndex);
+                out.writeInt(id);
+                out.writeInt(event.getAmount());
+                out.writeInt(damageType);
+                out.writeFloat(event.getDuration());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterAddShield(AddShieldEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onRemoveShield(RemoveShieldEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.getId());
+                writeEventStart(HealthEventRecording.REMOVE_SHIELD, entityIndex);
+                out.writeInt(id);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterRemoveShield(RemoveShieldEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onAddMaxHealthModifier(AddMaxHealthModifierEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.getId());
+                writeEventStart(HealthEventRecording.ADD_MAX_HEALTH_MODIFIER, entityIndex);
+                out.writeInt(id);
+                out.writeByte(event.getType().ordinal());
+                out.writeFloat(event.getValue());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterAddMaxHealthModifier(AddMaxHealthModifierEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    @ReceiveEvent(priority = EventPriority.PRIORITY_CRITICAL)
+    public void onRemoveMaxHealthModifier(RemoveMaxHealthModifierEvent event, EntityRef entity) {
+        if (isRecordingEvent()) {
+            try {
+                int entityIndex = entityIndex(entity);
+                int id = stringIndex(event.getId());
+                writeEventStart(HealthEventRecording.REMOVE_MAX_HEALTH_MODIFIER, entityIndex);
+                out.writeInt(id);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        handlingDepth++;
+    }
+
+    @ReceiveEvent(priority = AFTER_ALL)
+    public void afterRemoveMaxHealthModifier(RemoveMaxHealthModifierEvent event, EntityRef entity) {
+        handlingDepth--;
+    }
+
+    private boolean isRecordingEvent() {
+        return out != null && handlingDepth == 0 && !replayer.isReplaying();
+    }
+
+    private void writeEventStart(byte tag, int entityIndex) throws IOException {
+        long currentTime = time.getGameTimeInMs();
+        out.writeByte(tag);
+        out.writeInt((int) (currentTime - lastEventTime));
+        out.writeInt(entityIndex);
+        lastEventTime = currentTime;
+        recordedEvents++;
+    }
+
+    /**
+     * The index of the given entity in the recording, writing its health state if it is recorded for the first time.
+     */
+    private int entityIndex(EntityRef entity) throws IOException {
+        Integer index = entityIndices.get(entity);
+        if (index == null) {
+            index = entityIndices.size();
+            entityIndices.put(entity, index);
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            out.writeByte(HealthEventRecording.ENTITY);
+            out.writeInt(index);
+            out.writeBoolean(health != null);
+            if (health != null) {
+                out.writeInt(health.maxHealth);
+                out.writeInt(health.currentHealth);
+                out.writeFloat(health.regenRate);
+                out.writeFloat(health.waitBeforeRegen);
+            }
+        }
+        return index;
+    }
+
+    private int stringIndex(Prefab prefab) throws IOException {
+        return prefab != null ? stringIndex(prefab.getName()) : HealthEventRecording.NONE;
+    }
+
+    private int stringIndex(String string) throws IOException {
+        Integer index = stringIndices.get(string);
+        if (index == null) {
+            index = stringIndices.size();
+            stringIndices.put(string, index);
+            out.writeByte(HealthEventRecording.STRING);
+            out.writeInt(index);
+            out.writeUTF(string);
+        }
+        return index;
+    }
+
+    private void fail(IOException e) {
+        logger.error("Failed to record health event to {}, stopping the recording", path, e);
+        stop();
+    }
+}
@@ -0,0 +1,68 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.core.PathManager;
+
+import java.nio.file.Path;
+
+/**
+ * The binary format of health event recordings, written by the {@link HealthEventRecorder} and read by the
+ * {@link HealthEventReplayer}.
+ * <p>
+ * A recording starts with {@link #MAGIC} and {@link #VERSION}, followed by a sequence of records. Each record starts
+ * with a tag byte. Entities and strings are written once when they first occur and referenced by index afterwards;
+ * event records start with the in-game time in ms since the previous event.
+ * <ul>
+ *     <li>{@link #ENTITY}: index, has health, max health, current health, regen rate, wait before regen</li>
+ *     <li>{@link #STRING}: index, UTF string</li>
+ *     <li>{@link #DAMAGE}: time delta, entity, amount, damage type string (or -1), instigator entity (or -1)</li>
+ *     <li>{@link #RESTORE}: time delta, entity, amount</li>
+ *     <li>{@link #ACTIVATE_REGEN}: time delta, entity, id string, value, duration</li>
+ *     <li>{@link #DEACTIVATE_REGEN}: time delta, entity, id string</li>
+ *     <li>{@link #CHANGE_MAX_HEALTH}: time delta, entity, base value</li>
+ *     <li>{@link #ADD_SHIELD}: time delta, entity, id string, amount, damage type string (or -1), duration</li>
+ *     <li>{@link #REMOVE_SHIELD}: time delta, entity, id string</li>
+ *     <li>{@link #ADD_MAX_HEALTH_MODIFIER}: time delta, entity, id string, type ordinal (byte), value</li>
+ *     <li>{@link #REMOVE_MAX_HEALTH_MODIFIER}: time delta, entity, id string</li>
+ * </ul>
+ */
+final class HealthEventRecording {
+
+    static final int MAGIC = 0x484C5448;
+    static final int VERSION = 2;
+
+    static final byte ENTITY = 0;
+    static final byte STRING = 1;
+    static final byte DAMAGE = 2;
+    static final byte RESTORE = 3;
+    static final byte ACTIVATE_REGEN = 4;
+    static final byte DEACTIVATE_REGEN = 5;
+    static final byte CHANGE_MAX_HEALTH = 6;
+    static final byte ADD_SHIELD = 7;
+    static final byte REMOVE_SHIELD = 8;
+    static final byte ADD_MAX_HEALTH_MODIFIER = 9;
+    static final byte REMOVE_MAX_HEALTH_MODIFIER = 10;
+
+    static final int NONE = -1;
+
+    private HealthEventRecording() {
+    }
+
+    /**
+     * The file of the recording with the given name in the health recordings directory of the game's home path.
+     *
+     * @throws IllegalArgumentException if the name is empty or would resolve to a file outside of that directory
+     */
+    static Path getPath(String name) {
+        Path directory = PathManager.getInstance().getHomePath().resolve("healthRecordings").normalize();
+        if (name.isEmpty() || name.contains("/") || name.contains("\\") || name.contains("..")) {
+            throw new IllegalArgumentException("Invalid recording name: " + name);
+        }
+        Path path = directory.resolve(name + ".hrec").normalize();
+        if (!directory.equals(path.getParent())) {
+            throw new IllegalArgumentException("Invalid recording name: " + name);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,255 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.logic.health.event.ActivateRegenEvent;
+import org.terasology.logic.health.event.AddMaxHealthModifierEvent;
+import org.terasology.logic.health.event.AddShieldEvent;
+import org.terasology.logic.health.event.ChangeMaxHealthEvent;
+import org.terasology.logic.health.event.DeactivateRegenEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.DoRestoreEvent;
+import org.terasology.logic.health.event.RemoveMaxHealthModifierEvent;
+import org.terasology.logic.health.event.RemoveShieldEvent;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays recordings of the {@link HealthEventRecorder} as fast as possible, to benchmark the health systems with
+ * production-shaped workloads.
+ * <p>
+ * The recorded entities are recreated with their health state at the time they were first recorded, and the recorded
+ * events are sent to them in order, a fixed number of events per engine update, regardless of the recorded timing.
+ * Recorded entities without health (e.g., instigators) are recreated as empty entities. At the end all recreated
+ * entities are destroyed and a report of the replay time and throughput is logged.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthEventReplayer.class)
+public class HealthEventReplayer extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthEventReplayer.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private PrefabManager prefabManager;
+
+    private DataInputStream in;
+    private Path path;
+    private int eventsPerUpdate;
+
+    private final List<EntityRef> entities = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private long startNanos;
+    private long replayedEvents;
+    private final LatencyHistogram updateTimes = new LatencyHistogram();
+
+    private String lastReport = "No recording replayed yet";
+
+    @Override
+    public void shutdown() {
+        if (isReplaying()) {
+            finish();
+        }
+    }
+
+    public boolean isReplaying() {
+        return in != null;
+    }
+
+    /**
+     * Starts replaying the recording with the given name.
+     *
+     * @param name the name of the recording
+     * @param eventsPerUpdate the number of events to send per engine update
+     * @throws IOException if the recording does not exist or is not a health event recording
+     * @throws IllegalArgumentException if the name is not a plain file name
+     */
+    public void start(String name, int eventsPerUpdate) throws IOException {
+        Path newPath = HealthEventRecording.getPath(name);
+        if (isReplaying()) {
+            finish();
+        }
+        path = newPath;
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        if (input.readInt() != HealthEventRecording.MAGIC || input.readInt() != HealthEventRecording.VERSION) {
+            input.close();
+            throw new IOException("Not a health event recording: " + path);
+        }
+        in = input;
+        this.eventsPerUpdate = Math.max(1, eventsPerUpdate);
+        replayedEvents = 0;
+        updateTimes.reset();
+        startNanos = System.nanoTime();
+        logger.info("Replaying health events from {}", path);
+    }
+
+    /**
+     * The report of the last finished replay.
+     */
+    public String getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (!isReplaying()) {
+            return;
+        }
+        long updateStart = System.nanoTime();
+        try {
+            int events = 0;
+            while (events < eventsPerUpdate) {
+                if (replayRecord()) {
+                    events++;
+                }
+            }
+        } catch (EOFException e) {
+            updateTimes.record(System.nanoTime() - updateStart);
+            finish();
+            return;
+        } catch (IOException e) {
+            logger.error("Failed to read health event recording {}, stopping the replay", path, e);
+            finish();
+            return;
+        }
+        updateTimes.record(System.nanoTime() - updateStart);
+    }
+
+    /**
+     * Reads the next record and replays it.
+     *
+     * @return whether the record was an event
+     */
+    private boolean replayRecord() throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case HealthEventRecording.ENTITY:
+                readEntity();
+                return false;
+            case HealthEventRecording.STRING:
+                in.readInt();
+                strings.add(in.readUTF());
+                return false;
+            default:
+                replayEvent(tag);
+                return true;
+        }
+    }
+
+    private void readEntity() throws IOException {
+        in.readInt();
+        if (in.readBoolean()) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = in.readInt();
+            health.currentHealth = in.readInt();
+            health.regenRate = in.readFloat();
+            health.waitBeforeRegen = in.readFloat();
+            entities.add(entityManager.create(health));
+        } else {
+            entities.add(entityManager.create());
+        }
+    }
+
+    private void replayEvent(byte tag) throws IOException {
+        // the recorded timing is ignored to replay as fast as possible
+        in.readInt();
+        EntityRef entity = entities.get(in.readInt());
+        switch (tag) {
+            case HealthEventRecording.DAMAGE:
+                int amount = in.readInt();
+                Prefab damageType = getDamageType(in.readInt());
+                int instigator = in.readInt();
+                entity.send(new DoDamageEvent(amount, damageType,
+                        instigator == HealthEventRecording.NONE ? EntityRef.NULL : entities.get(instigator)));
+                break;
+            case HealthEventRecording.RESTORE:
+                entity.send(new DoRestoreEvent(in.readInt()));
+                break;
+            case HealthEventRecording.ACTIVATE_REGEN:
+                String id = strings.get(in.readInt());
+                float value = in.readFloat();
+                float duration = in.readFloat();
+                entity.send(new ActivateRegenEvent(id, value, duration));
+                break;
+            case HealthEventRecording.DEACTIVATE_REGEN:
+                entity.send(new DeactivateRegenEvent(strings.get(in.readInt())));
+                break;
+            case HealthEventRecording.CHANGE_MAX_HEALTH:
+                entity.send(new ChangeMaxHealthEvent(in.readFloat()));
+                break;
+            case HealthEventRecording.ADD_SHIELD:
+                String shieldId = strings.get(in.readInt());
+                int shieldAmount = in.readInt();
+                int shieldDamageType = in.readInt();
+                float shieldDuration = in.readFloat();
+                entity.send(new AddShieldEvent(shieldId, shieldAmount, shieldDamageType == HealthEventRecording.NONE
+                        ? null : prefabManager.getPrefab(strings.get(shieldDamageType)), shieldDuration));
+                break;
+            case HealthEventRecording.REMOVE_SHIELD:
+                entity.send(new RemoveShieldEvent(strings.get(in.readInt())));
+                break;
+            case HealthEventRecording.ADD_MAX_HEALTH_MODIFIER:
+                String modifierId = strings.get(in.readInt());
+                AddMaxHealthModifierEvent.Type type = AddMaxHealthModifierEvent.Type.values()[in.readByte()];
+                entity.send(new AddMaxHealthModifierEvent(modifierId, type, in.readFloat()));
+                break;
+            case HealthEventRecording.REMOVE_MAX_HEALTH_MODIFIER:
+                entity.send(new RemoveMaxHealthModifierEvent(strings.get(in.readInt())));
+                break;
+            default:
+                throw new IOException("Unknown record " + tag + " in health event recording " + path);
+        }
+        replayedEvents++;
+    }
+
+    private Prefab getDamageType(int stringIndex) {
+        Prefab damageType = stringIndex == HealthEventRecording.NONE ? null
+                : prefabManager.getPrefab(strings.get(stringIndex));
+        return damageType != null ? damageType : EngineDamageTypes.DIRECT.get();
+    }
+
+    private void finish() {
+        double seconds = Math.max(1, System.nanoTime() - startNanos) / 1_000_000_000.0;
+        lastReport = String.format("Replayed %d health events of %s in %.2fs (%.0f/s), "
+                        + "update time p50 %.2fms p99 %.2fms max %.2fms (%d updates)",
+                replayedEvents, path.getFileName(), seconds, replayedEvents / seconds,
+                updateTimes.getValueAtQuantile(0.5) / 1_000_000.0, updateTimes.getValueAtQuantile(0.99) / 1_000_000.0,
+                updateTimes.getMax() / 1_000_000.0, updateTimes.getTotalCount());
+        logger.info(lastReport);
+        try {
+            in.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close health event recording {}", path, e);
+        }
+        in = null;
+        for (EntityRef entity : entities) {
+            entity.destroy();
+        }
+        entities.clear();
+        strings.clear();
+    }
+}
@@ -0,0 +1,247 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+
+/**
+ * Collects runtime metrics of the health systems: counters of handled events and timings of the damage pipeline and
+ * regeneration updates.
+ * <p>
+ * Metrics are disabled by default. While disabled, recording a metric is a single field check, and timers do not
+ * query the system clock. Rates are computed over windows of one second.
+ * <p>
+ * Independent of that, the latency of each stage of the damage and restore pipelines is always recorded in a
+ * {@link LatencyHistogram}, which is cheap enough to leave on in production and allows to inspect tail latencies.
+ */
+@RegisterSystem
+@Share(HealthMetricsSystem.class)
+public class HealthMetricsSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * Events and operations counted by the health systems.
+     */
+    public enum Counter {
+        DAMAGE_EVENTS("damage events"),
+        RESTORE_EVENTS("restore events"),
+        CONSUMED_EVENTS("consumed events"),
+        REGEN_TICKS("regen ticks"),
+        BLOCK_HEALTH_ADDED("block entities materialized");
+
+        private final String displayName;
+
+        Counter(String displayName) {
+            this.displayName = displayName;
+        }
+    }
+
+    /**
+     * Operations timed by the health systems.
+     */
+    public enum Timer {
+        DAMAGE_PIPELINE("damage pipeline"),
+        RESTORE_PIPELINE("restore pipeline"),
+        REGEN_UPDATE("regen update");
+
+        private final String displayName;
+
+        Timer(String displayName) {
+            this.displayName = displayName;
+        }
+    }
+
+    /**
+     * Stages of the damage and restore pipelines whose latencies are recorded.
+     */
+    public enum Stage {
+        BEFORE_DAMAGED("BeforeDamagedEvent"),
+        ABSORB_DAMAGE("shield absorption"),
+        APPLY_DAMAGE("apply damage"),
+        ON_DAMAGED("OnDamagedEvent"),
+        REGEN_RESCHEDULE("regen rescheduling"),
+        DAMAGE_TOTAL("damage total"),
+        BEFORE_RESTORE("BeforeRestoreEvent"),
+        APPLY_RESTORE("apply restoration"),
+        ON_RESTORED("OnRestoredEvent"),
+        RESTORE_TOTAL("restore total");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+    }
+
+    private static final long WINDOW = 1000;
+
+    @In
+    private Time time;
+
+    private boolean enabled;
+
+    private final long[] counts = new long[Counter.values().length];
+    private final long[] windowCounts = new long[Counter.values().length];
+    private final long[] ratesPerSecond = new long[Counter.values().length];
+
+    private final long[] timerNanos = new long[Timer.values().length];
+    private final long[] timerCounts = new long[Timer.values().length];
+
+    private final LatencyHistogram[] stageLatencies = new LatencyHistogram[Stage.values().length];
+
+    private int regenScheduled;
+
+    private long nextWindow;
+    private String summary = "";
+
+    public HealthMetricsSystem() {
+        for (int i = 0; i < stageLatencies.length; i++) {
+            stageLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the collection of metrics. Enabling resets all metrics.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+            windowCounts[i] = 0;
+            ratesPerSecond[i] = 0;
+        }
+        for (int i = 0; i < timerNanos.length; i++) {
+            timerNanos[i] = 0;
+            timerCounts[i] = 0;
+        }
+        summary = "";
+    }
+
+    public void count(Counter counter) {
+        if (enabled) {
+            counts[counter.ordinal()]++;
+        }
+    }
+
+    /**
+     * The total count of the given counter since metrics were enabled.
+     */
+    public long getCount(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+
+    /**
+     * Records the number of entities currently scheduled for regeneration.
+     */
+    public void setRegenScheduled(int entities) {
+        regenScheduled = entities;
+    }
+
+    /**
+     * @return the start time to pass to {@link #stopTimer(Timer, long)}, or 0 if metrics are disabled
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void stopTimer(Timer timer, long startTime) {
+        if (enabled && startTime != 0) {
+            timerNanos[timer.ordinal()] += System.nanoTime() - startTime;
+            timerCounts[timer.ordinal()]++;
+        }
+    }
+
+    /**
+     * Records the latency of a pipeline stage.
+     *
+     * @param stage the pipeline stage
+     * @param startTime the {@link System#nanoTime()} at which the stage started
+     * @return the current {@link System#nanoTime()}, i.e., the start time of the next stage
+     */
+    public long recordStage(Stage stage, long startTime) {
+        long now = System.nanoTime();
+        stageLatencies[stage.ordinal()].record(now - startTime);
+        return now;
+    }
+
+    public void resetLatencies() {
+        for (LatencyHistogram histogram : stageLatencies) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * The p50, p99 and p99.9 latencies and the maximum latency per pipeline stage, formatted for display.
+     */
+    public String formatLatencies() {
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = stageLatencies[stage.ordinal()];
+            builder.append(stage.displayName)
+                    .append(": p50 ").append(formatMicros(histogram.getValueAtQuantile(0.5)))
+                    .append(" p99 ").append(formatMicros(histogram.getValueAtQuantile(0.99)))
+                    .append(" p999 ").append(formatMicros(histogram.getValueAtQuantile(0.999)))
+                    .append(" max ").append(formatMicros(histogram.getMax()))
+                    .append(" (").append(histogram.getTotalCount()).append(" samples)\n");
+        }
+        return builder.toString();
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+
+    @Override
+    public void update(float delta) {
+        if (!enabled) {
+            return;
+        }
+        long currentTime = time.getGameTimeInMs();
+        if (currentTime < nextWindow) {
+            return;
+        }
+        nextWindow = currentTime + WINDOW;
+        for (int i = 0; i < counts.length; i++) {
+            ratesPerSecond[i] = counts[i] - windowCounts[i];
+            windowCounts[i] = counts[i];
+        }
+        summary = format();
+    }
+
+    /**
+     * The metrics as of the last one second window, formatted for display.
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    private String format() {
+        StringBuilder builder = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            builder.append(counter.displayName).append(": ").append(ratesPerSecond[counter.ordinal()])
+                    .append("/s (total ").append(counts[counter.ordinal()]).append(")\n");
+        }
+        builder.append("entities scheduled for regen: ").append(regenScheduled).append('\n');
+        for (Timer timer : Timer.values()) {
+            long count = timerCounts[timer.ordinal()];
+            double averageMicros = count == 0 ? 0 : timerNanos[timer.ordinal()] / 1000.0 / count;
+            builder.append(timer.displayName).append(": ").append(String.format("%.1f", averageMicros))
+                    .append("us avg (").append(count).append(" samples)\n");
+        }
+        return builder.toString();
+    }
+}
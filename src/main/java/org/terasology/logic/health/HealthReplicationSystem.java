@@ -0,0 +1,325 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.logic.health.event.HealthConfigUpdateEvent;
+import org.terasology.logic.health.event.HealthUpdateEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replicates changes of {@link HealthComponent}s of networked entities to the clients.
+ * <p>
+ * The fields of the health component are only replicated with the initial state of an entity. Afterwards, this system
+ * collects the entities whose health component changed and sends the changed values once per network tick: a compact
+ * {@link HealthUpdateEvent} if the current or maximum health changed, and a {@link HealthConfigUpdateEvent} only if any
+ * of the collision damage or regeneration settings changed. Multiple changes of the same entity within one network
+ * tick result in a single update. When a health component is added to an entity the clients already know, its full
+ * state is sent on the next network tick as well, since the initial-only fields are not replicated for it.
+ * <p>
+ * Health updates are sent to each remote client depending on its character's distance to the entity: every network
+ * tick within the full rate radius, every {@link #REDUCED_RATE_DIVIDER}th network tick within the reduced rate radius,
+ * and not at all beyond it. Skipped updates are remembered per client, and the current health is sent once the entity
+ * is in range again. Clients always receive updates of their own character at full rate.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthReplicationSystem.class)
+public class HealthReplicationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * The time in ms between two batches of health updates, matching the engine's network tick.
+     */
+    private static final long REPLICATION_INTERVAL = 50;
+
+    /**
+     * Entities in the reduced rate band are updated every this many network ticks.
+     */
+    private static final int REDUCED_RATE_DIVIDER = 4;
+
+    private static final int FULL_RATE = 0;
+    private static final int REDUCED_RATE = 1;
+    private static final int OUT_OF_RANGE = 2;
+
+    @In
+    private Time time;
+
+    /** The health state last replicated to the clients, per networked entity. */
+    private final Map<EntityRef, ReplicatedHealth> replicated = new HashMap<>();
+    /** Entities whose health component changed since the last network tick. */
+    private final Set<EntityRef> changed = new HashSet<>();
+    /** The remote clients health updates are sent to. */
+    private final Map<EntityRef, RemoteClient> clients = new HashMap<>();
+    /**
+     * The entity whose network component is being activated, i.e., which is created or loaded as a whole. Adding a
+     * health component to an existing entity only activates the health component.
+     */
+    private EntityRef activatingEntity = EntityRef.NULL;
+
+    private float fullRateRadius = 64f;
+    private float reducedRateRadius = 128f;
+
+    private long nextReplication;
+    private int tick;
+
+    private final Vector3f entityPosition = new Vector3f();
+    private final Vector3i blockPosition = new Vector3i();
+
+    @Override
+    public void shutdown() {
+        replicated.clear();
+        changed.clear();
+        clients.clear();
+    }
+
+    /**
+     * Sets the distances (in blocks) between a client's character and an entity up to which the entity's health is
+     * replicated to the client at full rate and at reduced rate, respectively.
+     *
+     * @param fullRate the radius for updates on every network tick
+     * @param reducedRate the radius for updates at a reduced rate, at least {@code fullRate}
+     */
+    public void setRelevanceRadii(float fullRate, float reducedRate) {
+        fullRateRadius = Math.max(0, fullRate);
+        reducedRateRadius = Math.max(fullRateRadius, reducedRate);
+    }
+
+    public float getFullRateRadius() {
+        return fullRateRadius;
+    }
+
+    public float getReducedRateRadius() {
+        return reducedRateRadius;
+    }
+
+    @ReceiveEvent
+    public void onClientActivated(OnActivatedComponent event, EntityRef entity, ClientComponent client) {
+        if (!client.local) {
+            clients.put(entity, new RemoteClient(entity));
+        }
+    }
+
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onClientDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        clients.remove(entity);
+    }
+
+    @ReceiveEvent(components = NetworkComponent.class, priority = EventPriority.PRIORITY_CRITICAL)
+    public void beforeNetworkedActivated(OnActivatedComponent event, EntityRef entity) {
+        activatingEntity = entity;
+    }
+
+    /**
+     * Starts tracking the replicated health of a networked entity.
+     * <p>
+     * If the entity is created or loaded with its health component, or becomes networked with it, the clients receive
+     * the component with the initial state of the entity. Otherwise, the component is added to an entity the clients
+     * already know, and its full state is sent on the next network tick.
+     */
+    @ReceiveEvent(components = NetworkComponent.class)
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        ReplicatedHealth state = new ReplicatedHealth();
+        if (entity.equals(activatingEntity)) {
+            state.updateHealth(health);
+            state.updateConfig(health);
+        } else {
+            changed.add(entity);
+        }
+        replicated.put(entity, state);
+    }
+
+    @ReceiveEvent(components = NetworkComponent.class, priority = EventPriority.PRIORITY_TRIVIAL)
+    public void afterNetworkedActivated(OnActivatedComponent event, EntityRef entity) {
+        activatingEntity = EntityRef.NULL;
+    }
+
+    @ReceiveEvent(components = {HealthComponent.class, NetworkComponent.class})
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity) {
+        changed.add(entity);
+    }
+
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        replicated.remove(entity);
+        changed.remove(entity);
+        for (RemoteClient client : clients.values()) {
+            client.pending.remove(entity);
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        long currentTime = time.getGameTimeInMs();
+        if (currentTime < nextReplication) {
+            return;
+        }
+        nextReplication = currentTime + REPLICATION_INTERVAL;
+        tick++;
+        boolean reducedRateTick = tick % REDUCED_RATE_DIVIDER == 0;
+        if (changed.isEmpty() && !reducedRateTick) {
+            return;
+        }
+        for (RemoteClient client : clients.values()) {
+            client.updatePosition();
+        }
+        for (EntityRef entity : changed) {
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            ReplicatedHealth state = replicated.get(entity);
+            if (health != null && state != null) {
+                replicate(entity, health, state, reducedRateTick);
+            }
+        }
+        changed.clear();
+        if (reducedRateTick) {
+            sendPending();
+        }
+    }
+
+    private void replicate(EntityRef entity, HealthComponent health, ReplicatedHealth state, boolean reducedRateTick) {
+        if (state.hasHealthChanged(health)) {
+            state.updateHealth(health);
+            boolean hasPosition = getPosition(entity, entityPosition);
+            for (RemoteClient client : clients.values()) {
+                int band = hasPosition ? getBand(client, entity, entityPosition) : FULL_RATE;
+                if (band == FULL_RATE || band == REDUCED_RATE && reducedRateTick) {
+                    client.entity.send(new HealthUpdateEvent(entity, health.currentHealth, health.maxHealth));
+                    client.pending.remove(entity);
+                } else {
+                    client.pending.add(entity);
+                }
+            }
+        }
+        if (state.hasConfigChanged(health)) {
+            state.updateConfig(health);
+            entity.send(new HealthConfigUpdateEvent(health.fallingDamageSpeedThreshold,
+                    health.horizontalDamageSpeedThreshold, health.excessSpeedDamageMultiplier,
+                    health.regenRate, health.waitBeforeRegen));
+        }
+    }
+
+    /**
+     * Sends the current health of all entities with skipped updates which are in range of the client again.
+     */
+    private void sendPending() {
+        for (RemoteClient client : clients.values()) {
+            Iterator<EntityRef> iterator = client.pending.iterator();
+            while (iterator.hasNext()) {
+                EntityRef entity = iterator.next();
+                HealthComponent health = entity.getComponent(HealthComponent.class);
+                if (health == null) {
+                    iterator.remove();
+                } else if (!getPosition(entity, entityPosition)
+                        || getBand(client, entity, entityPosition) != OUT_OF_RANGE) {
+                    client.entity.send(new HealthUpdateEvent(entity, health.currentHealth, health.maxHealth));
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private int getBand(RemoteClient client, EntityRef entity, Vector3f position) {
+        if (!client.hasPosition || entity.equals(client.character) || entity.getOwner().equals(client.entity)) {
+            return FULL_RATE;
+        }
+        float distanceSquared = client.position.distanceSquared(position);
+        if (distanceSquared <= fullRateRadius * fullRateRadius) {
+            return FULL_RATE;
+        } else if (distanceSquared <= reducedRateRadius * reducedRateRadius) {
+            return REDUCED_RATE;
+        }
+        return OUT_OF_RANGE;
+    }
+
+    private boolean getPosition(EntityRef entity, Vector3f position) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location != null) {
+            location.getWorldPosition(position);
+            return position.isFinite();
+        }
+        BlockComponent block = entity.getComponent(BlockComponent.class);
+        if (block != null) {
+            block.getPosition(blockPosition);
+            position.set(blockPosition.x, blockPosition.y, blockPosition.z);
+            return true;
+        }
+        return false;
+    }
+
+    private static final class RemoteClient {
+        final EntityRef entity;
+        /** Entities whose health changed while they were not relevant to this client. */
+        final Set<EntityRef> pending = new HashSet<>();
+        final Vector3f position = new Vector3f();
+        EntityRef character = EntityRef.NULL;
+        boolean hasPosition;
+
+        RemoteClient(EntityRef entity) {
+            this.entity = entity;
+        }
+
+        void updatePosition() {
+            ClientComponent client = entity.getComponent(ClientComponent.class);
+            character = client != null ? client.character : EntityRef.NULL;
+            LocationComponent location = character.getComponent(LocationComponent.class);
+            hasPosition = location != null && location.getWorldPosition(position).isFinite();
+        }
+    }
+
+    private static final class ReplicatedHealth {
+        int currentHealth = Integer.MIN_VALUE;
+        int maxHealth = Integer.MIN_VALUE;
+        // NaN differs from every value, so the settings count as changed until they were sent
+        float fallingDamageSpeedThreshold = Float.NaN;
+        float horizontalDamageSpeedThreshold = Float.NaN;
+        float excessSpeedDamageMultiplier = Float.NaN;
+        float regenRate = Float.NaN;
+        float waitBeforeRegen = Float.NaN;
+
+        boolean hasHealthChanged(HealthComponent health) {
+            return currentHealth != health.currentHealth || maxHealth != health.maxHealth;
+        }
+
+        boolean hasConfigChanged(HealthComponent health) {
+            return fallingDamageSpeedThreshold != health.fallingDamageSpeedThreshold
+                    || horizontalDamageSpeedThreshold != health.horizontalDamageSpeedThreshold
+                    || excessSpeedDamageMultiplier != health.excessSpeedDamageMultiplier
+                    || regenRate != health.regenRate
+                    || waitBeforeRegen != health.waitBeforeRegen;
+        }
+
+        void updateHealth(HealthComponent health) {
+            currentHealth = health.currentHealth;
+            maxHealth = health.maxHealth;
+        }
+
+        void updateConfig(HealthComponent health) {
+            fallingDamageSpeedThreshold = health.fallingDamageSpeedThreshold;
+            horizontalDamageSpeedThreshold = health.horizontalDamageSpeedThreshold;
+            excessSpeedDamageMultiplier = health.excessSpeedDamageMultiplier;
+            regenRate = health.regenRate;
+            waitBeforeRegen = health.waitBeforeRegen;
+        }
+    }
+}
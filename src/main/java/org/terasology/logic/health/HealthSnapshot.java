@@ -0,0 +1,140 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.core.PathManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A snapshot of the health of all entities, written by the {@link HealthSnapshotExporter}.
+ * <p>
+ * Snapshots are stored in a columnar little-endian format which can be memory-mapped as a whole. The file starts with
+ * a header of {@link #HEADER_SIZE} bytes: {@link #MAGIC}, {@link #VERSION}, the number of entities {@code n} (all
+ * ints), 4 bytes of padding, and the in-game time of the snapshot in ms (a long). It is followed by one fixed-width
+ * column per value, each with {@code n} entries in the same entity order:
+ * <ul>
+ *     <li>entity id (long)</li>
+ *     <li>current health (int)</li>
+ *     <li>maximum health (int)</li>
+ *     <li>current regeneration rate per second, 0 if the entity does not regenerate (float)</li>
+ *     <li>number of active regeneration effects (int)</li>
+ * </ul>
+ * The long column directly follows the header, so all columns are aligned to their width.
+ */
+public final class HealthSnapshot {
+
+    public static final int MAGIC = 0x48534E50;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+
+    /** The size in bytes of all columns per entity. */
+    static final int ENTRY_SIZE = Long.BYTES + 4 * Integer.BYTES;
+
+    private final int size;
+    private final long gameTime;
+    private final LongBuffer entityIds;
+    private final IntBuffer currentHealth;
+    private final IntBuffer maxHealth;
+    private final FloatBuffer regenRate;
+    private final IntBuffer activeRegenEffects;
+
+    private HealthSnapshot(ByteBuffer buffer, Path path) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a health snapshot: " + path);
+        }
+        size = buffer.getInt(8);
+        gameTime = buffer.getLong(16);
+        if (size < 0 || buffer.capacity() != HEADER_SIZE + (long) size * ENTRY_SIZE) {
+            throw new IOException("Truncated health snapshot: " + path);
+        }
+        int offset = HEADER_SIZE;
+        entityIds = column(buffer, offset, size * Long.BYTES).asLongBuffer();
+        offset += size * Long.BYTES;
+        currentHealth = column(buffer, offset, size * Integer.BYTES).asIntBuffer();
+        offset += size * Integer.BYTES;
+        maxHealth = column(buffer, offset, size * Integer.BYTES).asIntBuffer();
+        offset += size * Integer.BYTES;
+        regenRate = column(buffer, offset, size * Float.BYTES).asFloatBuffer();
+        offset += size * Float.BYTES;
+        activeRegenEffects = column(buffer, offset, size * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer column(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer column = buffer.duplicate();
+        column.position(offset).limit(offset + length);
+        return column.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Memory-maps the given snapshot file.
+     *
+     * @throws IOException if the file cannot be read or is not a health snapshot
+     */
+    public static HealthSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new HealthSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+    /**
+     * The file of the snapshot with the given name and sequence number in the health snapshots directory of the game's
+     * home path.
+     *
+     * @throws IllegalArgumentException if the name is empty or would resolve to a file outside of that directory
+     */
+    public static Path getPath(String name, int sequence) {
+        Path directory = PathManager.getInstance().getHomePath().resolve("healthSnapshots").normalize();
+        if (name.isEmpty() || name.contains("/") || name.contains("\\") || name.contains("..")) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        Path path = directory.resolve(String.format("%s-%06d.hsnap", name, sequence)).normalize();
+        if (!directory.equals(path.getParent())) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        return path;
+    }
+
+    /**
+     * The number of entities in this snapshot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The in-game time in ms at which this snapshot was taken.
+     */
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    public long getEntityId(int index) {
+        return entityIds.get(index);
+    }
+
+    public int getCurrentHealth(int index) {
+        return currentHealth.get(index);
+    }
+
+    public int getMaxHealth(int index) {
+        return maxHealth.get(index);
+    }
+
+    public float getRegenRate(int index) {
+        return regenRate.get(index);
+    }
+
+    public int getActiveRegenEffects(int index) {
+        return activeRegenEffects.get(index);
+    }
+}
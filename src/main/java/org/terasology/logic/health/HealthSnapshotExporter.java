@@ -0,0 +1,252 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically exports the health of all entities into {@link HealthSnapshot} files, e.g., for balance analysis.
+ * <p>
+ * On a snapshot tick the values are copied into preallocated column arrays on the game thread, which are then written
+ * to disk by a background thread. Two sets of columns are used in turns, so the next snapshot can be captured while the
+ * previous one is still being written. If both are still busy, the snapshot is skipped instead of stalling the game.
+ * <p>
+ * Snapshots are written to a temporary file first and moved in place once complete, so readers never see partial
+ * snapshots.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthSnapshotExporter.class)
+public class HealthSnapshotExporter extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSnapshotExporter.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long SHUTDOWN_TIMEOUT = 5000;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private Time time;
+
+    private ExecutorService writer;
+    private final BlockingQueue<Columns> freeColumns = new ArrayBlockingQueue<>(2);
+
+    private String name;
+    private long interval;
+    private long nextSnapshot;
+    private int sequence;
+    private int skippedSnapshots;
+
+    private volatile int writtenSnapshots;
+    private volatile Path lastPath;
+
+    @Override
+    public void initialise() {
+        writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("health-snapshot-writer").setDaemon(true).build());
+        freeColumns.add(new Columns());
+        freeColumns.add(new Columns());
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn("Health snapshots are still being written, giving up");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return name != null;
+    }
+
+    /**
+     * Starts exporting snapshots with the given name, replacing existing snapshots of that name.
+     *
+     * @param name the name of the snapshots, which are numbered in sequence
+     * @param intervalSeconds the in-game time between two snapshots
+     * @throws IllegalArgumentException if the name is not a plain file name, see {@link HealthSnapshot#getPath}
+     */
+    public void start(String name, float intervalSeconds) {
+        HealthSnapshot.getPath(name, 0);
+        this.name = name;
+        interval = Math.max(1, (long) (intervalSeconds * 1000));
+        nextSnapshot = time.getGameTimeInMs();
+        sequence = 0;
+        skippedSnapshots = 0;
+        writtenSnapshots = 0;
+        logger.info("Exporting health snapshots {} every {}ms", name, interval);
+    }
+
+    public void stop() {
+        if (name != null) {
+            logger.info("Stopped exporting health snapshots {} after {} snapshots, {} skipped", name, sequence,
+                    skippedSnapshots);
+            name = null;
+        }
+    }
+
+    /**
+     * The number of snapshots written to disk since the export was started.
+     */
+    public int getWrittenSnapshots() {
+        return writtenSnapshots;
+    }
+
+    /**
+     * The number of snapshots skipped since the export was started, because the previous ones were still being written.
+     */
+    public int getSkippedSnapshots() {
+        return skippedSnapshots;
+    }
+
+    /**
+     * The file of the last snapshot written to disk, or null if none was written yet.
+     */
+    public Path getLastPath() {
+        return lastPath;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (name == null) {
+            return;
+        }
+        long currentTime = time.getGameTimeInMs();
+        if (currentTime < nextSnapshot) {
+            return;
+        }
+        nextSnapshot = currentTime + interval;
+        Columns columns = freeColumns.poll();
+        if (columns == null) {
+            skippedSnapshots++;
+            return;
+        }
+        capture(columns, currentTime);
+        columns.path = HealthSnapshot.getPath(name, sequence++);
+        writer.execute(() -> write(columns));
+    }
+
+    private void capture(Columns columns, long currentTime) {
+        columns.size = 0;
+        columns.gameTime = currentTime;
+        for (EntityRef entity : entityManager.getEntitiesWith(HealthComponent.class)) {
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            RegenComponent regen = entity.getComponent(RegenComponent.class);
+            columns.ensureCapacity(columns.size + 1);
+            int i = columns.size++;
+            columns.entityIds[i] = entity.getId();
+            columns.currentHealth[i] = health.currentHealth;
+            columns.maxHealth[i] = health.maxHealth;
+            columns.regenRate[i] = regen != null ? regen.rate : 0;
+            columns.activeRegenEffects[i] = regen != null ? regen.activeEffects : 0;
+        }
+    }
+
+    /**
+     * Writes the given columns to disk, runs on the writer thread.
+     */
+    private void write(Columns columns) {
+        Path path = columns.path;
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            ByteBuffer buffer = columns.fillBuffer();
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastPath = path;
+            writtenSnapshots++;
+        } catch (IOException e) {
+            logger.error("Failed to write health snapshot {}", path, e);
+        } finally {
+            freeColumns.add(columns);
+        }
+    }
+
+    /**
+     * The values of one snapshot, captured on the game thread and written by the writer thread.
+     */
+    private static final class Columns {
+        long[] entityIds = new long[INITIAL_CAPACITY];
+        int[] currentHealth = new int[INITIAL_CAPACITY];
+        int[] maxHealth = new int[INITIAL_CAPACITY];
+        float[] regenRate = new float[INITIAL_CAPACITY];
+        int[] activeRegenEffects = new int[INITIAL_CAPACITY];
+        int size;
+        long gameTime;
+        Path path;
+
+        /** The file contents, only used by the writer thread. */
+        ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+        void ensureCapacity(int capacity) {
+            if (capacity > entityIds.length) {
+                int newCapacity = Math.max(capacity, entityIds.length * 2);
+                entityIds = Arrays.copyOf(entityIds, newCapacity);
+                currentHealth = Arrays.copyOf(currentHealth, newCapacity);
+                maxHealth = Arrays.copyOf(maxHealth, newCapacity);
+                regenRate = Arrays.copyOf(regenRate, newCapacity);
+                activeRegenEffects = Arrays.copyOf(activeRegenEffects, newCapacity);
+            }
+        }
+
+        ByteBuffer fillBuffer() {
+            int length = HealthSnapshot.HEADER_SIZE + size * HealthSnapshot.ENTRY_SIZE;
+            if (buffer.capacity() < length) {
+                buffer = ByteBuffer.allocateDirect(Math.max(length, buffer.capacity() * 2));
+            }
+            buffer.clear();
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(HealthSnapshot.MAGIC).putInt(HealthSnapshot.VERSION).putInt(size).putInt(0)
+                    .putLong(gameTime);
+            buffer.asLongBuffer().put(entityIds, 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asIntBuffer().put(currentHealth, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asIntBuffer().put(maxHealth, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asFloatBuffer().put(regenRate, 0, size);
+            buffer.position(buffer.position() + size * Float.BYTES);
+            buffer.asIntBuffer().put(activeRegenEffects, 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.utilities.random.Random;
+import org.terasology.logic.health.event.ActivateRegenEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.DoRestoreEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a synthetic health workload to soak test the health systems, e.g., to size servers.
+ * <p>
+ * A soak test spawns a number of entities with health and, for a given duration, drives damage, restoration and
+ * regeneration activations against random ones of them at fixed rates. Some of the entities additionally take one
+ * point of damage every second, similar to a damage over time effect. Random choices use a fixed seed, so runs with the
+ * same parameters produce the same workload. At the end the entities are destroyed and a report of the engine update
+ * times and the throughput is logged.
+ * <p>
+ * No clients are needed, so soak tests can run on headless servers and in module testing environments.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HealthSoakTestSystem.class)
+public class HealthSoakTestSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSoakTestSystem.class);
+
+    private static final long SEED = 42;
+    private static final int MAX_HEALTH = 1000;
+    private static final String REGEN_ID = "Health:soakTest";
+    private static final float REGEN_DURATION = 5f;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private Time time;
+
+    private final List<EntityRef> entities = new ArrayList<>();
+    private Random random;
+
+    private float damagePerSecond;
+    private float restorePerSecond;
+    private float regenPerSecond;
+    private int dotEntities;
+
+    private long startTime;
+    private long endTime;
+    private long nextDotTick;
+    private long lastUpdateNanos;
+    private float pendingDamage;
+    private float pendingRestore;
+    private float pendingRegen;
+    private long sentEvents;
+
+    private final LatencyHistogram updateTimes = new LatencyHistogram();
+    private final LatencyHistogram healthTimes = new LatencyHistogram();
+
+    private String lastReport = "No soak test run yet";
+
+    @Override
+    public void shutdown() {
+        if (isRunning()) {
+            finish();
+        }
+    }
+
+    public boolean isRunning() {
+        return !entities.isEmpty();
+    }
+
+    /**
+     * Starts a soak test unless one is already running.
+     *
+     * @param entityCount the number of entities to spawn
+     * @param damagePerSecond the number of damage events per second
+     * @param restorePerSecond the number of restore events per second
+     * @param regenPerSecond the number of regeneration activations per second
+     * @param dotEntityCount the number of entities which take damage every second
+     * @param seconds the duration of the soak test in in-game seconds
+     * @return whether the soak test was started
+     */
+    public boolean start(int entityCount, float damagePerSecond, float restorePerSecond, float regenPerSecond,
+                         int dotEntityCount, float seconds) {
+        if (isRunning() || entityCount <= 0) {
+            return false;
+        }
+        for (int i = 0; i < entityCount; i++) {
+            HealthComponent health = new HealthComponent();
+            health.maxHealth = MAX_HEALTH;
+            health.currentHealth = MAX_HEALTH;
+            health.regenRate = 1;
+            entities.add(entityManager.create(health));
+        }
+        random = new FastRandom(SEED);
+        this.damagePerSecond = Math.max(0, damagePerSecond);
+        this.restorePerSecond = Math.max(0, restorePerSecond);
+        this.regenPerSecond = Math.max(0, regenPerSecond);
+        dotEntities = Math.min(entityCount, Math.max(0, dotEntityCount));
+        pendingDamage = 0;
+        pendingRestore = 0;
+        pendingRegen = 0;
+        sentEvents = 0;
+        updateTimes.reset();
+        healthTimes.reset();
+        startTime = time.getGameTimeInMs();
+        endTime = startTime + (long) (seconds * 1000);
+        nextDotTick = startTime;
+        lastUpdateNanos = 0;
+        logger.info("Started health soak test with {} entities for {}s", entityCount, seconds);
+        return true;
+    }
+
+    /**
+     * The report of the last finished soak test.
+     */
+    public String getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (!isRunning()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastUpdateNanos != 0) {
+            updateTimes.record(now - lastUpdateNanos);
+        }
+        lastUpdateNanos = now;
+
+        long currentTime = time.getGameTimeInMs();
+        if (currentTime >= endTime) {
+            finish();
+            return;
+        }
+
+        pendingDamage += damagePerSecond * delta;
+        pendingRestore += restorePerSecond * delta;
+        pendingRegen += regenPerSecond * delta;
+        for (; pendingDamage >= 1; pendingDamage--) {
+            send(randomEntity(), new DoDamageEvent(1 + random.nextInt(5), EngineDamageTypes.DIRECT.get()));
+        }
+        for (; pendingRestore >= 1; pendingRestore--) {
+            send(randomEntity(), new DoRestoreEvent(1 + random.nextInt(5)));
+        }
+        for (; pendingRegen >= 1; pendingRegen--) {
+            send(randomEntity(), new ActivateRegenEvent(REGEN_ID, 1 + random.nextInt(3), REGEN_DURATION));
+        }
+        if (currentTime >= nextDotTick) {
+            for (int i = 0; i < dotEntities; i++) {
+                send(entities.get(i), new DoDamageEvent(1, EngineDamageTypes.DIRECT.get()));
+            }
+            nextDotTick += 1000;
+        }
+        healthTimes.record(System.nanoTime() - now);
+    }
+
+    private EntityRef randomEntity() {
+        return entities.get(random.nextInt(entities.size()));
+    }
+
+    private void send(EntityRef entity, Event event) {
+        entity.send(event);
+        sentEvents++;
+    }
+
+    private void finish() {
+        float seconds = Math.max(1, time.getGameTimeInMs() - startTime) / 1000f;
+        lastReport = String.format("Health soak test with %d entities over %.1fs: %d events (%.0f/s), "
+                        + "update time p50 %.2fms p99 %.2fms max %.2fms, "
+                        + "health work per update p50 %.2fms p99 %.2fms max %.2fms (%d updates)",
+                entities.size(), seconds, sentEvents, sentEvents / seconds,
+                millis(updateTimes.getValueAtQuantile(0.5)), millis(updateTimes.getValueAtQuantile(0.99)),
+                millis(updateTimes.getMax()),
+                millis(healthTimes.getValueAtQuantile(0.5)), millis(healthTimes.getValueAtQuantile(0.99)),
+                millis(healthTimes.getMax()), healthTimes.getTotalCount());
+        logger.info(lastReport);
+        for (EntityRef entity : entities) {
+            entity.destroy();
+        }
+        entities.clear();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,188 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.logic.players.event.OnPlayerSpawnedEvent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.logic.health.event.MaxHealthChangedEvent;
+import org.terasology.logic.health.event.OnDamagedEvent;
+import org.terasology.logic.health.event.OnRestoredEvent;
+
+/**
+ * Client-side view model of the local player's health.
+ * <p>
+ * Keeps a copy of the current and maximum health of the local player's character which is updated from health events
+ * and component replication. UI elements like the {@link org.terasology.rendering.nui.layers.hud.HealthHud} read the
+ * plain values instead of looking up the {@link HealthComponent} on every evaluation. The values are reset when the
+ * character loses its health component or the local player gets another character.
+ * <p>
+ * While the character regenerates, the current health is interpolated from the last replicated value and the
+ * regeneration rate of its {@link RegenComponent}. Each replicated update corrects the prediction, so the server can
+ * replicate health less often during regeneration without visible stepping.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+@Share(LocalPlayerHealthSystem.class)
+public class LocalPlayerHealthSystem extends BaseComponentSystem {
+
+    @In
+    private LocalPlayer localPlayer;
+    @In
+    private Time time;
+
+    /** The character the cached values belong to. */
+    private EntityRef character = EntityRef.NULL;
+    /** The last replicated health, or the predicted health when the regeneration rate last changed. */
+    private float currentHealth;
+    private float maxHealth;
+    /** The regeneration rate in health points per second. */
+    private float regenRate;
+    /** The in-game time (in ms) at which {@link #currentHealth} was set. */
+    private long updateTime;
+
+    /**
+     * The current health of the local player's character, or 0 if it has no health.
+     * <p>
+     * While the character regenerates, this is the predicted health based on the regeneration rate.
+     */
+    public float getCurrentHealth() {
+        return predictHealth(currentHealth, maxHealth, regenRate, time.getGameTimeInMs() - updateTime);
+    }
+
+    /**
+     * The health predicted from the given health after regenerating at the given rate for the given time, capped at
+     * the maximum health.
+     *
+     * @param regenRate the regeneration rate in health points per second
+     * @param elapsedMs the time since the given health was known, in ms
+     */
+    static float predictHealth(float health, float maxHealth, float regenRate, long elapsedMs) {
+        if (regenRate <= 0 || health >= maxHealth) {
+            return health;
+        }
+        return Math.min(maxHealth, health + regenRate * (elapsedMs / 1000f));
+    }
+
+    /**
+     * The maximum health of the local player's character, or 0 if it has no health.
+     */
+    public float getMaxHealth() {
+        return maxHealth;
+    }
+
+    @ReceiveEvent
+    public void onPlayerSpawned(OnPlayerSpawnedEvent event, EntityRef character, HealthComponent health) {
+        update(character, health);
+    }
+
+    @ReceiveEvent
+    public void onHealthActivated(OnActivatedComponent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent
+    public void onHealthChanged(OnChangedComponent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent(components = HealthComponent.class)
+    public void onHealthDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (entity.equals(character)) {
+            reset();
+        }
+    }
+
+    /**
+     * Switches to the health of the new character when the local player's character changes.
+     */
+    @ReceiveEvent
+    public void onClientChanged(OnChangedComponent event, EntityRef entity, ClientComponent client) {
+        if (entity.equals(localPlayer.getClientEntity()) && !client.character.equals(character)) {
+            reset();
+            HealthComponent health = client.character.getComponent(HealthComponent.class);
+            if (health != null) {
+                update(client.character, health);
+            }
+            RegenComponent regen = client.character.getComponent(RegenComponent.class);
+            if (regen != null) {
+                updateRegen(client.character, regen);
+            }
+        }
+    }
+
+    @ReceiveEvent
+    public void onDamaged(OnDamagedEvent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent
+    public void onRestored(OnRestoredEvent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent
+    public void onMaxHealthChanged(MaxHealthChangedEvent event, EntityRef entity, HealthComponent health) {
+        update(entity, health);
+    }
+
+    @ReceiveEvent
+    public void onRegenActivated(OnActivatedComponent event, EntityRef entity, RegenComponent regen) {
+        updateRegen(entity, regen);
+    }
+
+    @ReceiveEvent
+    public void onRegenChanged(OnChangedComponent event, EntityRef entity, RegenComponent regen) {
+        updateRegen(entity, regen);
+    }
+
+    @ReceiveEvent(components = RegenComponent.class)
+    public void onRegenDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            setRegenRate(0);
+        }
+    }
+
+    private void update(EntityRef entity, HealthComponent health) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            character = entity;
+            currentHealth = health.currentHealth;
+            maxHealth = health.maxHealth;
+            updateTime = time.getGameTimeInMs();
+        }
+    }
+
+    private void updateRegen(EntityRef entity, RegenComponent regen) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            setRegenRate(regen.rate);
+        }
+    }
+
+    /**
+     * Clears the cached and predicted values, so that the health reads as 0 until the character has health again.
+     */
+    private void reset() {
+        character = EntityRef.NULL;
+        currentHealth = 0;
+        maxHealth = 0;
+        regenRate = 0;
+        updateTime = 0;
+    }
+
+    private void setRegenRate(float rate) {
+        // continue the prediction from the current value with the new rate
+        currentHealth = getCurrentHealth();
+        updateTime = time.getGameTimeInMs();
+        regenRate = rate;
+    }
+}
@@ -0,0 +1,39 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The persistent stack of maximum health modifiers of an entity, managed by the {@link HealthAuthoritySystem}.
+ * <p>
+ * The effective maximum health is {@code (baseValue + sum of additions) * product of multipliers + sum of post
+ * additions}. The sums and the product are updated when a modifier is added, so that adding a modifier does not
+ * require to evaluate all others. On removal, the sum or product of the affected group is recomputed from its remaining
+ * modifiers, so that it does not drift over many additions and removals.
+ *
+ * @see org.terasology.logic.health.event.AddMaxHealthModifierEvent
+ * @see org.terasology.logic.health.event.RemoveMaxHealthModifierEvent
+ */
+public class MaxHealthModifiersComponent implements Component {
+
+    /** The maximum health without any modifiers. */
+    public float baseValue;
+
+    /** The additive modifiers by id, applied before the multipliers. */
+    public Map<String, Float> additions = new HashMap<>();
+    /** The multiplicative modifiers by id. */
+    public Map<String, Float> multipliers = new HashMap<>();
+    /** The additive modifiers by id, applied after the multipliers. */
+    public Map<String, Float> postAdditions = new HashMap<>();
+
+    /** The sum of all {@link #additions}. */
+    public float additionSum;
+    /** The product of all {@link #multipliers}. */
+    public float multiplierProduct = 1;
+    /** The sum of all {@link #postAdditions}. */
+    public float postAdditionSum;
+}
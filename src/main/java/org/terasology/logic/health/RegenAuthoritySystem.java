@@ -3,9 +3,8 @@
 package org.terasology.logic.health;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Ordering;
-import com.google.common.collect.SortedSetMultimap;
-import com.google.common.collect.TreeMultimap;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.core.Time;
@@ -17,13 +16,18 @@ import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.logic.health.HealthComponent;
 import org.terasology.logic.health.event.ActivateRegenEvent;
 import org.terasology.logic.health.event.DeactivateRegenEvent;
 import org.terasology.logic.health.event.OnFullyHealedEvent;
 import org.terasology.math.TeraMath;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -35,8 +39,18 @@ import java.util.Map;
  * <p>
  * Regeneration is applied once every second (every 1000ms) per {@link RegenComponent}. The active components are
  * checked five times per second (every 200ms) whether they are due for application.
+ * <p>
+ * Blocks which are further away than {@link #BLOCK_REPAIR_LOD_DISTANCE} from all players are repaired in coarse steps
+ * of {@link #BLOCK_REPAIR_LOD_STEP} instead. Such blocks are moved to a separate schedule sorted by the time of their
+ * next step, so they are not visited at all in between. The repair of a whole step is applied at once, so that the
+ * overall repair rate stays the same while the work done for blocks nobody can see drops to a fraction. Whether a
+ * player came close is checked at the next step, which then continues with a repair every second.
+ * <p>
+ * The health component of a regenerating entity is only saved (and thus replicated) once per health sync interval, see
+ * {@link #setHealthSyncInterval(long)}. Clients interpolate the health in between based on the regeneration rate.
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
+@Share(RegenAuthoritySystem.class)
 public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     public static final String ALL_REGEN = "all";
@@ -49,19 +63,51 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
      */
     private static final int CHECK_INTERVAL = 200;
 
+    /**
+     * The time in ms between two regeneration ticks.
+     */
+    private static final long REGEN_TICK = 1000;
+
+    /**
+     * Blocks further away from every player than this distance (in blocks) are repaired in coarse steps.
+     */
+    private static final float BLOCK_REPAIR_LOD_DISTANCE = 64f;
+
+    /**
+     * The time in ms between two repair steps of blocks far away from all players.
+     */
+    private static final long BLOCK_REPAIR_LOD_STEP = 10000;
+
     /**
      * The in-game time in ms at which entities are to be regenerated again.
      */
     private static long nextTick;
 
     // Stores when next to check for new value of regen, contains only entities which are being regenerated
-    private final SortedSetMultimap<Long, EntityRef> regenSortedByTime =
-            TreeMultimap.create(Ordering.natural(), Ordering.arbitrary());
+    private final TimeOrderedScheduler regenSortedByTime = new TimeOrderedScheduler();
+
+    /** Blocks repaired in coarse steps by the time of their next step, these are not in {@link #regenSortedByTime}. */
+    private final TimeOrderedScheduler coarseRepairsByTime = new TimeOrderedScheduler();
+    private final Map<EntityRef, Long> coarseRepairTimes = new HashMap<>();
 
     @In
     private Time time;
     @In
     private EntityManager entityManager;
+    @In
+    private HealthMetricsSystem metrics;
+
+    /**
+     * The minimum time in ms between two saves of the health component of a regenerating entity.
+     */
+    private long healthSyncInterval = REGEN_TICK;
+
+    /** World positions of all player characters, collected once per regeneration pass and reused. */
+    private final List<Vector3f> playerPositions = new ArrayList<>();
+    private int playerCount;
+    private final Vector3i blockPosition = new Vector3i();
+    private final List<EntityRef> dueCoarseRepairs = new ArrayList<>();
+    private final List<EntityRef> toBeRepairedInCoarseSteps = new ArrayList<>();
 
     /**
      * For every update, check to see if the time's been over the CHECK_INTERVAL. If so, verify if a REGENERATION_TICK
@@ -73,7 +119,10 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     public void update(float delta) {
         final long currentTime = time.getGameTimeInMs();
         if (currentTime > nextTick) {
+            long startTime = metrics.startTimer();
             invokeRegenOperations(currentTime);
+            metrics.stopTimer(HealthMetricsSystem.Timer.REGEN_UPDATE, startTime);
+            metrics.setRegenScheduled(regenSortedByTime.size() + coarseRepairsByTime.size());
             nextTick = currentTime + CHECK_INTERVAL;
         }
     }
@@ -84,19 +133,7 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     private void invokeRegenOperations(long currentWorldTime) {
         // Contains all the entities with current time crossing EndTime
         List<EntityRef> entitiesWithExpiringRegenActions = new LinkedList<>();
-        Iterator<Long> regenTimeIterator = regenSortedByTime.keySet().iterator();
-        long endTime;
-        while (regenTimeIterator.hasNext()) {
-            endTime = regenTimeIterator.next();
-            if (endTime == -1) {
-                continue;
-            }
-            if (endTime > currentWorldTime) {
-                break;
-            }
-            entitiesWithExpiringRegenActions.addAll(regenSortedByTime.get(endTime));
-            regenTimeIterator.remove();
-        }
+        regenSortedByTime.pollDue(currentWorldTime, entitiesWithExpiringRegenActions);
 
         // Add new regen if present, or remove RegenComponent
         entitiesWithExpiringRegenActions.stream()
@@ -104,13 +141,13 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
                 .filter(entityRef -> entityRef.hasComponent(RegenComponent.class))
                 .forEach(regenEntity -> {
                     RegenComponent regen = regenEntity.getComponent(RegenComponent.class);
-                    regenSortedByTime.remove(regen.soonestEndTime, regenEntity);
+                    regenSortedByTime.cancel(regen.soonestEndTime, regenEntity);
                     removeCompleted(currentWorldTime, regen);
                     if (regen.regenValue.isEmpty()) {
                         regenEntity.removeComponent(RegenComponent.class);
                     } else {
                         regenEntity.saveComponent(regen);
-                        regenSortedByTime.put(findSoonestEndTime(regen), regenEntity);
+                        regenSortedByTime.schedule(findSoonestEndTime(regen), regenEntity);
                     }
                 });
 
@@ -119,8 +156,11 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     }
 
     private void regenerate(long currentTime) {
+        collectPlayerPositions();
+        repairInCoarseSteps(currentTime);
+
         Map<EntityRef, Long> regenToBeRemoved = new HashMap<>();
-        for (EntityRef entity : regenSortedByTime.values()) {
+        for (EntityRef entity : regenSortedByTime.getScheduled()) {
             RegenComponent regen = entity.getComponent(RegenComponent.class);
             HealthComponent health = entity.getComponent(HealthComponent.class);
             if (regen == null || health == null) {
@@ -128,21 +168,164 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
                 continue;
             }
             if (health.nextRegenTick < currentTime) {
-                health.currentHealth += getRegenValue(regen);
-                health.nextRegenTick = currentTime + 1000;
-                if (health.currentHealth >= health.maxHealth) {
+                if (applyRegen(entity, regen, health, 1, currentTime)) {
                     regenToBeRemoved.put(entity, regen.soonestEndTime);
-                    if (hasBaseRegenOnly(regen) || regen.regenValue.isEmpty()) {
-                        entity.removeComponent(RegenComponent.class);
-                    }
-                    entity.send(new OnFullyHealedEvent(entity));
+                } else if (isRepairedInCoarseSteps(entity, regen)) {
+                    toBeRepairedInCoarseSteps.add(entity);
                 }
-                entity.saveComponent(health);
             }
         }
         for (EntityRef entity : regenToBeRemoved.keySet()) {
-            regenSortedByTime.remove(regenToBeRemoved.get(entity), entity);
+            regenSortedByTime.cancel(regenToBeRemoved.get(entity), entity);
+        }
+        for (EntityRef entity : toBeRepairedInCoarseSteps) {
+            RegenComponent regen = entity.getComponent(RegenComponent.class);
+            regenSortedByTime.cancel(regen.soonestEndTime, entity);
+            scheduleCoarseRepair(entity, currentTime);
+        }
+        toBeRepairedInCoarseSteps.clear();
+    }
+
+    /**
+     * Repairs the blocks whose next coarse step is due, catching up on all ticks since their last repair, and moves
+     * them back to the regular schedule if a player came close.
+     */
+    private void repairInCoarseSteps(long currentTime) {
+        coarseRepairsByTime.pollDue(currentTime, dueCoarseRepairs);
+        for (EntityRef entity : dueCoarseRepairs) {
+            coarseRepairTimes.remove(entity);
+            RegenComponent regen = entity.getComponent(RegenComponent.class);
+            HealthComponent health = entity.getComponent(HealthComponent.class);
+            if (regen == null || health == null) {
+                continue;
+            }
+            if (!applyRegen(entity, regen, health, getPendingTicks(health, currentTime), currentTime)) {
+                if (isRepairedInCoarseSteps(entity, regen)) {
+                    scheduleCoarseRepair(entity, currentTime);
+                } else {
+                    regenSortedByTime.schedule(regen.soonestEndTime, entity);
+                }
+            }
+        }
+        dueCoarseRepairs.clear();
+    }
+
+    /**
+     * The number of ticks due since the last regeneration of the given entity, including the one that was due back
+     * then, capped to one coarse repair step.
+     */
+    private static int getPendingTicks(HealthComponent health, long currentTime) {
+        long pending = Math.max(0, currentTime - health.nextRegenTick);
+        return (int) Math.min(1 + pending / REGEN_TICK, 1 + BLOCK_REPAIR_LOD_STEP / REGEN_TICK);
+    }
+
+    /**
+     * Applies the given number of regeneration ticks to the entity.
+     *
+     * @return whether the entity is fully healed, in which case its base regeneration is removed
+     */
+    private boolean applyRegen(EntityRef entity, RegenComponent regen, HealthComponent health, int ticks,
+                              long currentTime) {
+        metrics.count(HealthMetricsSystem.Counter.REGEN_TICKS);
+        long previousRegenTime = health.nextRegenTick - REGEN_TICK;
+        health.currentHealth = Math.min(health.maxHealth, health.currentHealth + getRegenValue(regen, ticks));
+        health.nextRegenTick = currentTime + REGEN_TICK;
+        if (health.currentHealth >= health.maxHealth) {
+            if (hasBaseRegenOnly(regen) || regen.regenValue.isEmpty()) {
+                entity.removeComponent(RegenComponent.class);
+            }
+            entity.send(new OnFullyHealedEvent(entity));
+            entity.saveComponent(health);
+            return true;
+        }
+        if (previousRegenTime / healthSyncInterval != currentTime / healthSyncInterval) {
+            // the health is updated in place on every tick, but only saved once per sync interval
+            entity.saveComponent(health);
         }
+        return false;
+    }
+
+    /**
+     * Moves the entity to the schedule of blocks repaired in coarse steps, with its next step one
+     * {@link #BLOCK_REPAIR_LOD_STEP} after its last repair.
+     */
+    private void scheduleCoarseRepair(EntityRef entity, long currentTime) {
+        long dueTime = currentTime + BLOCK_REPAIR_LOD_STEP;
+        coarseRepairsByTime.schedule(dueTime, entity);
+        coarseRepairTimes.put(entity, dueTime);
+    }
+
+    /**
+     * Moves the entity from the schedule of blocks repaired in coarse steps back to the regular schedule, applying the
+     * repair of all full ticks since its last repair.
+     */
+    private void stopCoarseRepair(EntityRef entity, RegenComponent regen, HealthComponent health) {
+        Long dueTime = coarseRepairTimes.remove(entity);
+        if (dueTime == null) {
+            return;
+        }
+        coarseRepairsByTime.cancel(dueTime, entity);
+        long currentTime = time.getGameTimeInMs();
+        // the tick due at nextRegenTick is applied by the regular schedule
+        int ticks = (int) (Math.max(0, currentTime - health.nextRegenTick) / REGEN_TICK);
+        if (ticks > 0) {
+            health.currentHealth = Math.min(health.maxHealth, health.currentHealth + getRegenValue(regen, ticks));
+            health.nextRegenTick += ticks * REGEN_TICK;
+            entity.saveComponent(health);
+        }
+        regenSortedByTime.schedule(regen.soonestEndTime, entity);
+    }
+
+    /**
+     * Sets the minimum time between two saves of the health component of a regenerating entity.
+     * <p>
+     * Saving the component replicates it to the clients. Between saves, the health is still updated on the authority,
+     * and clients interpolate it based on the regeneration rate. Defaults to the regeneration tick of one second, i.e.,
+     * every regeneration tick is saved.
+     *
+     * @param intervalInMs the sync interval in ms, at least one regeneration tick
+     */
+    public void setHealthSyncInterval(long intervalInMs) {
+        healthSyncInterval = Math.max(REGEN_TICK, intervalInMs);
+    }
+
+    public long getHealthSyncInterval() {
+        return healthSyncInterval;
+    }
+
+    private void collectPlayerPositions() {
+        playerCount = 0;
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            LocationComponent location = client.getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+            if (location != null) {
+                if (playerCount == playerPositions.size()) {
+                    playerPositions.add(new Vector3f());
+                }
+                location.getWorldPosition(playerPositions.get(playerCount++));
+            }
+        }
+    }
+
+    /**
+     * Whether the entity is a block with base regeneration only which is far away from all players.
+     * <p>
+     * Other regeneration effects have a limited duration and are always applied per tick to not overshoot their end
+     * time.
+     */
+    private boolean isRepairedInCoarseSteps(EntityRef entity, RegenComponent regen) {
+        BlockComponent block = entity.getComponent(BlockComponent.class);
+        if (block == null || !hasBaseRegenOnly(regen)) {
+            return false;
+        }
+        block.getPosition(blockPosition);
+        float maxDistanceSquared = BLOCK_REPAIR_LOD_DISTANCE * BLOCK_REPAIR_LOD_DISTANCE;
+        for (int i = 0; i < playerCount; i++) {
+            if (playerPositions.get(i).distanceSquared(blockPosition.x, blockPosition.y, blockPosition.z)
+                    <= maxDistanceSquared) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void removeCompleted(Long currentTime, RegenComponent regen) {
@@ -166,6 +349,19 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
             regen.regenValue.remove(id);
         }
         regen.soonestEndTime = findSoonestEndTime(regen);
+        updateSummary(regen);
+    }
+
+    /**
+     * Updates the replicated summary of the regeneration actions.
+     */
+    private void updateSummary(RegenComponent regen) {
+        float rate = 0;
+        for (float value : regen.regenValue.values()) {
+            rate += value;
+        }
+        regen.rate = rate;
+        regen.activeEffects = regen.regenValue.size();
     }
 
 
@@ -174,11 +370,13 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
                              HealthComponent health) {
         if (event.value != 0) {
             logger.debug("activate regen '{}' for entity {} with regen component", event.id, entity);
+            stopCoarseRepair(entity, regen, health);
 
             // Remove previous scheduled regen, new will be added by addRegenToScheduler()
-            regenSortedByTime.remove(regen.soonestEndTime, entity);
+            regenSortedByTime.cancel(regen.soonestEndTime, entity);
             addRegenToScheduler(event, regen);
-            regenSortedByTime.put(regen.soonestEndTime, entity);
+            regenSortedByTime.schedule(regen.soonestEndTime, entity);
+            entity.saveComponent(regen);
         }
     }
 
@@ -204,6 +402,7 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
             if (endTime > 0) {
                 regen.soonestEndTime = Math.min(regen.soonestEndTime, endTime);
             }
+            updateSummary(regen);
         }
     }
 
@@ -211,7 +410,11 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     public void onRegenComponentAdded(OnActivatedComponent event, EntityRef entity, RegenComponent regen) {
         if (!regen.regenValue.isEmpty()) {
             logger.debug("register regen component for entity {} at {}", entity, regen.soonestEndTime);
-            regenSortedByTime.put(regen.soonestEndTime, entity);
+            Long dueTime = coarseRepairTimes.remove(entity);
+            if (dueTime != null) {
+                coarseRepairsByTime.cancel(dueTime, entity);
+            }
+            regenSortedByTime.schedule(regen.soonestEndTime, entity);
         } else {
             entity.removeComponent(RegenComponent.class);
         }
@@ -220,14 +423,16 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
     @ReceiveEvent
     public void onRegenRemoved(DeactivateRegenEvent event, EntityRef entity, HealthComponent health,
                                RegenComponent regen) {
-        regenSortedByTime.remove(regen.soonestEndTime, entity);
+        stopCoarseRepair(entity, regen, health);
+        regenSortedByTime.cancel(regen.soonestEndTime, entity);
         if (event.id.equals(ALL_REGEN)) {
             entity.removeComponent(RegenComponent.class);
         } else {
             removeRegen(event.id, regen);
             if (!regen.regenValue.isEmpty()) {
-                regenSortedByTime.put(regen.soonestEndTime, entity);
+                regenSortedByTime.schedule(regen.soonestEndTime, entity);
             }
+            entity.saveComponent(regen);
         }
     }
 
@@ -256,15 +461,24 @@ public class RegenAuthoritySystem extends BaseComponentSystem implements UpdateS
         }
         regen.regenEndTime.remove(removeKey, id);
         regen.regenValue.remove(id);
+        updateSummary(regen);
     }
 
     @VisibleForTesting
     int getRegenValue(RegenComponent regen) {
-        float totalValue = regen.remainder;
+        return getRegenValue(regen, 1);
+    }
+
+    /**
+     * The accumulated regeneration for the given number of ticks, carrying fractional health points over to the next
+     * call.
+     */
+    private int getRegenValue(RegenComponent regen, int ticks) {
+        float totalValue = 0;
         for (float value : regen.regenValue.values()) {
             totalValue += value;
         }
-        totalValue = Math.max(0, totalValue);
+        totalValue = Math.max(0, regen.remainder + totalValue * ticks);
         regen.remainder = totalValue % 1;
         return TeraMath.floorToInt(totalValue);
     }
@@ -13,6 +13,10 @@ import java.util.Map;
 
 /**
  * Not for direct access! Use regen events instead.
+ * <p>
+ * The regeneration actions and their end times are only known to the authority. Clients receive a compact summary
+ * (the total regeneration rate, the soonest end time and the number of active actions), which is enough to display and
+ * predict the regeneration.
  *
  * @see org.terasology.logic.health.event.ActivateRegenEvent
  * @see org.terasology.logic.health.event.DeactivateRegenEvent
@@ -25,18 +29,27 @@ public class RegenComponent implements Component {
     public long soonestEndTime = Long.MAX_VALUE;
 
     /**
-     * Mapping from regeneration action ids to the regeneration value.
+     * The sum of all regeneration values, i.e., the health points regenerated per second.
+     */
+    @Replicate
+    public float rate;
+
+    /**
+     * The number of active regeneration actions.
      */
     @Replicate
+    public int activeEffects;
+
+    /**
+     * Mapping from regeneration action ids to the regeneration value.
+     */
     public Map<String, Float> regenValue = new HashMap<>();
 
     /**
      * Registered regeneration action ids associated to their end time.
      */
-    @Replicate
     public SortedSetMultimap<Long, String> regenEndTime = TreeMultimap.create(Ordering.natural(),
             Ordering.arbitrary());
 
-    @Replicate
     public float remainder;
 }
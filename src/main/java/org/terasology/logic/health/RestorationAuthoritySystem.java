@@ -21,6 +21,7 @@ import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
 import org.terasology.logic.health.event.BeforeRestoreEvent;
 import org.terasology.logic.health.event.DoDamageEvent;
 import org.terasology.logic.health.event.DoRestoreEvent;
@@ -44,30 +45,43 @@ import org.terasology.math.TeraMath;
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class RestorationAuthoritySystem extends BaseComponentSystem {
 
+    @In
+    private HealthMetricsSystem metrics;
+
     @ReceiveEvent
     public void onRestore(DoRestoreEvent event, EntityRef entity, HealthComponent health) {
         // Ignore 0 restoration
         if (event.getAmount() == 0) {
             return;
         }
+        long startTime = metrics.startTimer();
+        metrics.count(HealthMetricsSystem.Counter.RESTORE_EVENTS);
+        long pipelineStart = System.nanoTime();
         BeforeRestoreEvent beforeRestoreEvent = entity.send(new BeforeRestoreEvent(event.getAmount(), entity));
+        long stageTime = metrics.recordStage(HealthMetricsSystem.Stage.BEFORE_RESTORE, pipelineStart);
         if (!beforeRestoreEvent.isConsumed()) {
             int modifiedRestoreAmount = TeraMath.floorToInt(beforeRestoreEvent.getResultValue());
             if (modifiedRestoreAmount > 0) {
-                restore(entity, health, modifiedRestoreAmount);
+                restore(entity, health, modifiedRestoreAmount, stageTime);
+                metrics.recordStage(HealthMetricsSystem.Stage.RESTORE_TOTAL, pipelineStart);
             } else {
                 // Cause "healing" damage to entity if modified value of restoration is negative
                 entity.send(new DoDamageEvent(-modifiedRestoreAmount, EngineDamageTypes.HEALING.get()));
             }
+        } else {
+            metrics.count(HealthMetricsSystem.Counter.CONSUMED_EVENTS);
         }
+        metrics.stopTimer(HealthMetricsSystem.Timer.RESTORE_PIPELINE, startTime);
     }
 
-    private void restore(EntityRef entity, HealthComponent health, int restoreAmount) {
+    private void restore(EntityRef entity, HealthComponent health, int restoreAmount, long stageTime) {
         int cappedHealth = Math.min(health.maxHealth, health.currentHealth + restoreAmount);
         int cappedRestoreAmount = cappedHealth - health.currentHealth;
         health.currentHealth = cappedHealth;
         entity.saveComponent(health);
+        stageTime = metrics.recordStage(HealthMetricsSystem.Stage.APPLY_RESTORE, stageTime);
         entity.send(new OnRestoredEvent(cappedRestoreAmount, entity));
+        metrics.recordStage(HealthMetricsSystem.Stage.ON_RESTORED, stageTime);
         if (cappedHealth == health.maxHealth) {
             entity.send(new OnFullyHealedEvent(entity));
         }
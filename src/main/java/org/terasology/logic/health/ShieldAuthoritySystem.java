@@ -0,0 +1,220 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.event.ReceiveEvent;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.logic.health.ShieldComponent.Shield;
+import org.terasology.logic.health.event.AddShieldEvent;
+import org.terasology.logic.health.event.OnDamageAbsorbedEvent;
+import org.terasology.logic.health.event.RemoveShieldEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Manages the absorption shields of entities, see {@link AddShieldEvent}.
+ * <p>
+ * The shields of an entity are resolved by the {@link DamageAuthoritySystem} in a single pass over the entity's
+ * {@link ShieldComponent}, after the {@link org.terasology.logic.health.event.BeforeDamagedEvent} and before the
+ * {@link HealthComponent} is changed.
+ * <p>
+ * Like regeneration effects, entities with expiring shields are kept in a {@link TimeOrderedScheduler} by the end time
+ * of their soonest expiring shield. Only entities whose shields are due are visited on an update, and shields which
+ * expire before are already ignored by the damage pipeline.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(ShieldAuthoritySystem.class)
+public class ShieldAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    @In
+    private Time time;
+
+    /** Entities with expiring shields by the end time of their soonest expiring shield. */
+    private final TimeOrderedScheduler shieldsSortedByTime = new TimeOrderedScheduler();
+
+    private final List<EntityRef> expiring = new ArrayList<>();
+
+    @Override
+    public void shutdown() {
+        shieldsSortedByTime.clear();
+    }
+
+    /**
+     * Absorbs the given damage with the shields of the given entity.
+     *
+     * @param entity the damaged entity
+     * @param amount the amount of damage, after all modifications
+     * @param damageType the type of the damage
+     * @param instigator the instigator of the damage
+     * @return the amount of damage which was not absorbed
+     */
+    public int absorb(EntityRef entity, int amount, Prefab damageType, EntityRef instigator) {
+        ShieldComponent shieldComponent = entity.getComponent(ShieldComponent.class);
+        if (shieldComponent == null) {
+            return amount;
+        }
+        long currentTime = time.getGameTimeInMs();
+        int remaining = amount;
+        boolean changed = false;
+        Iterator<Shield> iterator = shieldComponent.shields.iterator();
+        while (remaining > 0 && iterator.hasNext()) {
+            Shield shield = iterator.next();
+            if (isExpired(shield, currentTime)) {
+                iterator.remove();
+                changed = true;
+            } else if (shield.damageType == null || shield.damageType.equals(damageType)) {
+                int absorbed = Math.min(remaining, shield.amount);
+                shield.amount -= absorbed;
+                remaining -= absorbed;
+                if (shield.amount <= 0) {
+                    iterator.remove();
+                }
+                changed = true;
+            }
+        }
+        if (changed) {
+            save(entity, shieldComponent);
+        }
+        if (remaining < amount) {
+            entity.send(new OnDamageAbsorbedEvent(amount - remaining, damageType, instigator));
+        }
+        return remaining;
+    }
+
+    /**
+     * The total amount of damage of the given type the shields of the given entity can still absorb.
+     *
+     * @param damageType the damage type, or null to count only shields which absorb all damage types
+     */
+    public int getShieldAmount(EntityRef entity, Prefab damageType) {
+        ShieldComponent shieldComponent = entity.getComponent(ShieldComponent.class);
+        if (shieldComponent == null) {
+            return 0;
+        }
+        long currentTime = time.getGameTimeInMs();
+        int total = 0;
+        for (Shield shield : shieldComponent.shields) {
+            if (!isExpired(shield, currentTime)
+                    && (shield.damageType == null || shield.damageType.equals(damageType))) {
+                total += shield.amount;
+            }
+        }
+        return total;
+    }
+
+    @ReceiveEvent
+    public void onAddShield(AddShieldEvent event, EntityRef entity, HealthComponent health) {
+        if (event.getAmount() <= 0) {
+            return;
+        }
+        ShieldComponent shieldComponent = entity.getComponent(ShieldComponent.class);
+        boolean added = shieldComponent == null;
+        if (added) {
+            shieldComponent = new ShieldComponent();
+        }
+        Shield shield = find(shieldComponent, event.getId());
+        if (shield == null) {
+            shield = new Shield();
+            shield.id = event.getId();
+            shieldComponent.shields.add(shield);
+        }
+        shield.amount = event.getAmount();
+        shield.damageType = event.getDamageType();
+        shield.endTime = event.getDuration() < 0 ? -1
+                : time.getGameTimeInMs() + (long) (event.getDuration() * 1000);
+        if (added) {
+            shieldComponent.soonestEndTime = findSoonestEndTime(shieldComponent);
+            entity.addComponent(shieldComponent);
+        } else {
+            save(entity, shieldComponent);
+        }
+    }
+
+    @ReceiveEvent
+    public void onRemoveShield(RemoveShieldEvent event, EntityRef entity, ShieldComponent shieldComponent) {
+        Shield shield = find(shieldComponent, event.getId());
+        if (shield != null) {
+            shieldComponent.shields.remove(shield);
+            save(entity, shieldComponent);
+        }
+    }
+
+    @ReceiveEvent
+    public void onShieldsActivated(OnActivatedComponent event, EntityRef entity, ShieldComponent shieldComponent) {
+        if (shieldComponent.soonestEndTime != Long.MAX_VALUE) {
+            shieldsSortedByTime.schedule(shieldComponent.soonestEndTime, entity);
+        }
+    }
+
+    @ReceiveEvent
+    public void onShieldsDeactivated(BeforeDeactivateComponent event, EntityRef entity,
+                                     ShieldComponent shieldComponent) {
+        shieldsSortedByTime.cancel(shieldComponent.soonestEndTime, entity);
+    }
+
+    @Override
+    public void update(float delta) {
+        long currentTime = time.getGameTimeInMs();
+        shieldsSortedByTime.pollDue(currentTime, expiring);
+        for (EntityRef entity : expiring) {
+            ShieldComponent shieldComponent = entity.getComponent(ShieldComponent.class);
+            if (shieldComponent == null) {
+                continue;
+            }
+            shieldComponent.shields.removeIf(shield -> isExpired(shield, currentTime));
+            save(entity, shieldComponent);
+        }
+        expiring.clear();
+    }
+
+    /**
+     * Saves the shields of the given entity and updates its schedule, or removes the component if no shield is left.
+     */
+    private void save(EntityRef entity, ShieldComponent shieldComponent) {
+        shieldsSortedByTime.cancel(shieldComponent.soonestEndTime, entity);
+        if (shieldComponent.shields.isEmpty()) {
+            entity.removeComponent(ShieldComponent.class);
+            return;
+        }
+        shieldComponent.soonestEndTime = findSoonestEndTime(shieldComponent);
+        if (shieldComponent.soonestEndTime != Long.MAX_VALUE) {
+            shieldsSortedByTime.schedule(shieldComponent.soonestEndTime, entity);
+        }
+        entity.saveComponent(shieldComponent);
+    }
+
+    private static Shield find(ShieldComponent shieldComponent, String id) {
+        for (Shield shield : shieldComponent.shields) {
+            if (shield.id.equals(id)) {
+                return shield;
+            }
+        }
+        return null;
+    }
+
+    private static long findSoonestEndTime(ShieldComponent shieldComponent) {
+        long soonestEndTime = Long.MAX_VALUE;
+        for (Shield shield : shieldComponent.shields) {
+            if (shield.endTime >= 0) {
+                soonestEndTime = Math.min(soonestEndTime, shield.endTime);
+            }
+        }
+        return soonestEndTime;
+    }
+
+    private static boolean isExpired(Shield shield, long currentTime) {
+        return shield.endTime >= 0 && shield.endTime <= currentTime;
+    }
+}
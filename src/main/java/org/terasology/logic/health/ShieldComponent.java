@@ -0,0 +1,41 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import org.terasology.engine.entitySystem.Component;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.reflection.MappedContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The absorption shields of an entity, managed by the {@link ShieldAuthoritySystem}.
+ * <p>
+ * Shields absorb damage in order before it reaches the {@link HealthComponent}, see
+ * {@link org.terasology.logic.health.event.AddShieldEvent}.
+ */
+public class ShieldComponent implements Component {
+
+    /** The active shields, in the order in which they absorb damage. */
+    public List<Shield> shields = new ArrayList<>();
+
+    /** The in-game time in ms at which the next shield expires, or {@link Long#MAX_VALUE} if none expires. */
+    public long soonestEndTime = Long.MAX_VALUE;
+
+    @MappedContainer
+    public static class Shield {
+
+        /** Identifier for the cause of this shield. */
+        public String id;
+
+        /** The amount of damage this shield can still absorb. */
+        public int amount;
+
+        /** The only damage type this shield absorbs, or null to absorb all damage types. */
+        public Prefab damageType;
+
+        /** The in-game time in ms at which this shield expires, or -1 if it does not expire. */
+        public long endTime = -1;
+    }
+}
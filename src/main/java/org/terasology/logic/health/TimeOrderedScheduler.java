@@ -0,0 +1,73 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health;
+
+import com.google.common.collect.Ordering;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * A schedule of entities sorted by the in-game time at which they are due, e.g., the end time of their soonest
+ * expiring regeneration effect or shield.
+ * <p>
+ * Polling the due entities only visits the entries which are due, so it is cheap enough to be done on every update.
+ * Entities scheduled at a negative time are never due, which is used for effects without end time.
+ */
+final class TimeOrderedScheduler {
+
+    private final SortedSetMultimap<Long, EntityRef> entitiesByTime =
+            TreeMultimap.create(Ordering.natural(), Ordering.arbitrary());
+
+    /**
+     * Schedules the entity at the given time, in addition to any other time it is already scheduled at.
+     */
+    void schedule(long dueTime, EntityRef entity) {
+        entitiesByTime.put(dueTime, entity);
+    }
+
+    /**
+     * Removes the entity from the schedule at the given time, if it is scheduled at that time.
+     */
+    void cancel(long dueTime, EntityRef entity) {
+        entitiesByTime.remove(dueTime, entity);
+    }
+
+    /**
+     * Moves all entities due at or before the given time from the schedule to the given collection, in order of their
+     * due time.
+     */
+    void pollDue(long currentTime, Collection<EntityRef> due) {
+        Iterator<Long> iterator = entitiesByTime.keySet().iterator();
+        while (iterator.hasNext()) {
+            long dueTime = iterator.next();
+            if (dueTime < 0) {
+                continue;
+            }
+            if (dueTime > currentTime) {
+                break;
+            }
+            due.addAll(entitiesByTime.get(dueTime));
+            iterator.remove();
+        }
+    }
+
+    /**
+     * All scheduled entities in order of their due time, as an unmodifiable view.
+     */
+    Collection<EntityRef> getScheduled() {
+        return Collections.unmodifiableCollection(entitiesByTime.values());
+    }
+
+    int size() {
+        return entitiesByTime.size();
+    }
+
+    void clear() {
+        entitiesByTime.clear();
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.event.Event;
+
+/**
+ * Adds a modifier to the maximum health of an entity, or replaces the modifier with the same id.
+ * <p>
+ * Unlike {@link ChangeMaxHealthEvent}, modifiers are kept until they are removed with a
+ * {@link RemoveMaxHealthModifierEvent}, e.g., when a piece of gear is unequipped or a buff ends. Adding or removing a
+ * modifier only updates the affected part of the maximum health, and notifications are only sent if the effective
+ * maximum health changes.
+ * <p>
+ * For instance, an amulet increasing the maximum health by 10% could be implemented as follows:
+ * <pre>
+ * {@code
+ * entity.send(AddMaxHealthModifierEvent.multiply("myModule:amulet", 1.1f));
+ * ...
+ * entity.send(new RemoveMaxHealthModifierEvent("myModule:amulet"));
+ * }
+ * </pre>
+ */
+public class AddMaxHealthModifierEvent implements Event {
+
+    /**
+     * How a modifier is applied, in order of application.
+     */
+    public enum Type {
+        /** Added to the base value. */
+        ADD,
+        /** Multiplied with the base value and all additions. */
+        MULTIPLY,
+        /** Added after all multipliers were applied. */
+        POST_ADD
+    }
+
+    private final String id;
+    private final Type type;
+    private final float value;
+
+    public AddMaxHealthModifierEvent(String id, Type type, float value) {
+        this.id = id;
+        this.type = type;
+        this.value = value;
+    }
+
+    public static AddMaxHealthModifierEvent add(String id, float amount) {
+        return new AddMaxHealthModifierEvent(id, Type.ADD, amount);
+    }
+
+    public static AddMaxHealthModifierEvent multiply(String id, float factor) {
+        return new AddMaxHealthModifierEvent(id, Type.MULTIPLY, factor);
+    }
+
+    public static AddMaxHealthModifierEvent postAdd(String id, float amount) {
+        return new AddMaxHealthModifierEvent(id, Type.POST_ADD, amount);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public float getValue() {
+        return value;
+    }
+}
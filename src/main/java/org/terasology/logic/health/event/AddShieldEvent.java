@@ -0,0 +1,67 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+
+/**
+ * Adds an absorption shield to an entity, or replaces the shield with the same id.
+ * <p>
+ * Shields absorb damage before it is applied to the entity's health, after all modifications of the
+ * {@link BeforeDamagedEvent}. Damage is absorbed by the shields in the order in which they were added, until it is
+ * absorbed entirely or no shield is left. A replaced shield keeps its position. Depleted and expired shields are
+ * removed.
+ * <p>
+ * For instance, a spell absorbing up to 30 points of fire damage over 10 seconds could be implemented as follows:
+ * <pre>
+ * {@code
+ * entity.send(new AddShieldEvent("magic:fireWard", 30, fireDamagePrefab, 10));
+ * }
+ * </pre>
+ */
+public class AddShieldEvent implements Event {
+    private final String id;
+    private final int amount;
+    private final Prefab damageType;
+    private final float duration;
+
+    /**
+     * Adds a shield absorbing all damage types which does not expire.
+     *
+     * @param id identifier for the cause of this shield
+     * @param amount the amount of damage the shield absorbs
+     */
+    public AddShieldEvent(String id, int amount) {
+        this(id, amount, null, -1);
+    }
+
+    /**
+     * @param id identifier for the cause of this shield
+     * @param amount the amount of damage the shield absorbs
+     * @param damageType the only damage type the shield absorbs, or null to absorb all damage types
+     * @param duration the duration of the shield in seconds, or a negative value if it does not expire
+     */
+    public AddShieldEvent(String id, int amount, Prefab damageType, float duration) {
+        this.id = id;
+        this.amount = amount;
+        this.damageType = damageType;
+        this.duration = duration;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public Prefab getDamageType() {
+        return damageType;
+    }
+
+    public float getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,68 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+
+import java.util.Set;
+
+/**
+ * This event is sent once per engine update to every entity with a
+ * {@link org.terasology.logic.health.HealthChangeSummaryComponent} that was damaged or restored since the last update.
+ * <p>
+ * It summarizes all {@link OnDamagedEvent}s and {@link OnRestoredEvent}s of that update. Listeners which do not need to
+ * react to every single hit, e.g., for statistics, aggro or sounds, can subscribe to this event instead to run once per
+ * entity per update.
+ */
+public class HealthChangeSummaryEvent implements Event {
+    private final int totalDamage;
+    private final int totalRestore;
+    private final int hitCount;
+    private final int restoreCount;
+    private final Set<EntityRef> instigators;
+
+    public HealthChangeSummaryEvent(int totalDamage, int totalRestore, int hitCount, int restoreCount,
+                                    Set<EntityRef> instigators) {
+        this.totalDamage = totalDamage;
+        this.totalRestore = totalRestore;
+        this.hitCount = hitCount;
+        this.restoreCount = restoreCount;
+        this.instigators = instigators;
+    }
+
+    /**
+     * The sum of the (capped) health changes of all damage dealt to the entity.
+     */
+    public int getTotalDamage() {
+        return totalDamage;
+    }
+
+    /**
+     * The sum of the health restored to the entity.
+     */
+    public int getTotalRestore() {
+        return totalRestore;
+    }
+
+    /**
+     * The number of {@link OnDamagedEvent}s summarized by this event.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of {@link OnRestoredEvent}s summarized by this event.
+     */
+    public int getRestoreCount() {
+        return restoreCount;
+    }
+
+    /**
+     * All instigators of the damage and restoration, not including {@link EntityRef#NULL}.
+     */
+    public Set<EntityRef> getInstigators() {
+        return instigators;
+    }
+}
@@ -0,0 +1,53 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.network.BroadcastEvent;
+
+/**
+ * Replicates the collision damage and regeneration settings of an entity's
+ * {@link org.terasology.logic.health.HealthComponent} to the clients.
+ * <p>
+ * Only sent by the authority if any of these settings changed, which is rare compared to health updates.
+ */
+@BroadcastEvent
+public class HealthConfigUpdateEvent implements Event {
+    private float fallingDamageSpeedThreshold;
+    private float horizontalDamageSpeedThreshold;
+    private float excessSpeedDamageMultiplier;
+    private float regenRate;
+    private float waitBeforeRegen;
+
+    public HealthConfigUpdateEvent() {
+    }
+
+    public HealthConfigUpdateEvent(float fallingDamageSpeedThreshold, float horizontalDamageSpeedThreshold,
+                                   float excessSpeedDamageMultiplier, float regenRate, float waitBeforeRegen) {
+        this.fallingDamageSpeedThreshold = fallingDamageSpeedThreshold;
+        this.horizontalDamageSpeedThreshold = horizontalDamageSpeedThreshold;
+        this.excessSpeedDamageMultiplier = excessSpeedDamageMultiplier;
+        this.regenRate = regenRate;
+        this.waitBeforeRegen = waitBeforeRegen;
+    }
+
+    public float getFallingDamageSpeedThreshold() {
+        return fallingDamageSpeedThreshold;
+    }
+
+    public float getHorizontalDamageSpeedThreshold() {
+        return horizontalDamageSpeedThreshold;
+    }
+
+    public float getExcessSpeedDamageMultiplier() {
+        return excessSpeedDamageMultiplier;
+    }
+
+    public float getRegenRate() {
+        return regenRate;
+    }
+
+    public float getWaitBeforeRegen() {
+        return waitBeforeRegen;
+    }
+}
@@ -0,0 +1,45 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.network.OwnerEvent;
+
+/**
+ * Replicates the current and maximum health of an entity to a client.
+ * <p>
+ * Sent by the authority to the client entity of each client the health change is relevant to, at most once per
+ * network tick for entities whose health changed since the last update. The values are applied to the client's copy of
+ * the {@link org.terasology.logic.health.HealthComponent}.
+ */
+@OwnerEvent
+public class HealthUpdateEvent implements Event {
+    private EntityRef entity = EntityRef.NULL;
+    private int currentHealth;
+    private int maxHealth;
+
+    public HealthUpdateEvent() {
+    }
+
+    public HealthUpdateEvent(EntityRef entity, int currentHealth, int maxHealth) {
+        this.entity = entity;
+        this.currentHealth = currentHealth;
+        this.maxHealth = maxHealth;
+    }
+
+    /**
+     * The entity whose health changed.
+     */
+    public EntityRef getEntity() {
+        return entity;
+    }
+
+    public int getCurrentHealth() {
+        return currentHealth;
+    }
+
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+}
@@ -0,0 +1,39 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.event.Event;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+
+/**
+ * This event is sent after absorption shields absorbed (part of) the damage dealt to an entity.
+ * <p>
+ * If the damage was absorbed entirely, no {@link OnDamagedEvent} follows.
+ */
+public class OnDamageAbsorbedEvent implements Event {
+    private final int amount;
+    private final Prefab damageType;
+    private final EntityRef instigator;
+
+    public OnDamageAbsorbedEvent(int amount, Prefab damageType, EntityRef instigator) {
+        this.amount = amount;
+        this.damageType = damageType;
+        this.instigator = instigator;
+    }
+
+    /**
+     * The amount of damage absorbed by the shields.
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    public Prefab getDamageType() {
+        return damageType;
+    }
+
+    public EntityRef getInstigator() {
+        return instigator;
+    }
+}
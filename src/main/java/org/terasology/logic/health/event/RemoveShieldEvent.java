@@ -0,0 +1,20 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.health.event;
+
+import org.terasology.engine.entitySystem.event.Event;
+
+/**
+ * Removes the absorption shield with the given id, added by an {@link AddShieldEvent}.
+ */
+public class RemoveShieldEvent implements Event {
+    private final String id;
+
+    public RemoveShieldEvent(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -3,7 +3,7 @@
 
 package org.terasology.rendering.nui.layers.hud;
 
-import com.google.common.collect.Lists;
+import com.google.common.annotations.VisibleForTesting;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.math.Direction;
 import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
@@ -11,45 +11,57 @@ import org.terasology.nui.Canvas;
 import org.terasology.nui.widgets.UIImage;
 import org.terasology.engine.registry.In;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+/**
+ * Shows from which direction the local player is damaged.
+ * <p>
+ * The state of the four indicators is kept in fixed primitive arrays indexed by direction, so showing an indicator
+ * and drawing the overlay do not allocate.
+ */
 public class DirectionalDamageOverlay extends CoreHudWidget {
 
+    private static final int TOP = 0;
+    private static final int RIGHT = 1;
+    private static final int LEFT = 2;
+    private static final int BOTTOM = 3;
+
     @In
     private Time time;
 
-    private UIImage bottom;
-    private UIImage top;
-    private UIImage left;
-    private UIImage right;
+    private final UIImage[] indicators = new UIImage[4];
 
-    private List<UIImage> indicators;
-    private final Map<UIImage, TimingInformation> activeIndicators = new HashMap<>();
+    /** In-game time (in seconds) at which each indicator was shown. */
+    private final float[] start = new float[4];
+    /** In-game time (in seconds) at which each indicator is hidden again. */
+    private final float[] end = new float[4];
 
     @Override
     public void initialise() {
-        bottom = find("damageBottom", UIImage.class);
-        top = find("damageTop", UIImage.class);
-        left = find("damageLeft", UIImage.class);
-        right = find("damageRight", UIImage.class);
+        setIndicators(find("damageTop", UIImage.class),
+                find("damageRight", UIImage.class),
+                find("damageLeft", UIImage.class),
+                find("damageBottom", UIImage.class));
+    }
 
-        indicators = Lists.newArrayList(top, right, left, bottom);
+    @VisibleForTesting
+    void setIndicators(UIImage top, UIImage right, UIImage left, UIImage bottom) {
+        indicators[TOP] = top;
+        indicators[RIGHT] = right;
+        indicators[LEFT] = left;
+        indicators[BOTTOM] = bottom;
     }
 
-    private UIImage imageForDirection(Direction direction) {
+    private static int slotForDirection(Direction direction) {
         switch (direction) {
             case UP:
             case FORWARD:
-                return top;
+                return TOP;
             case RIGHT:
-                return right;
+                return RIGHT;
             case LEFT:
-                return left;
+                return LEFT;
             case DOWN:
             case BACKWARD:
-                return bottom;
+                return BOTTOM;
             default:
                 throw new IllegalStateException();
         }
@@ -57,26 +69,29 @@ public class DirectionalDamageOverlay extends CoreHudWidget {
 
     @Override
     public void onDraw(Canvas canvas) {
-        float currentTime = time.getGameTime();
-
-        // update state: update active indicators
-        activeIndicators.entrySet().removeIf(activeIndicator -> activeIndicator.getValue().end <= currentTime);
+        updateIndicators(time.getGameTime());
+        super.onDraw(canvas);
+    }
 
-        // render state: render active indicators
-        for (UIImage indicator : indicators) {
-            boolean isActive = activeIndicators.containsKey(indicator);
+    private void updateIndicators(float currentTime) {
+        for (int i = 0; i < indicators.length; i++) {
+            UIImage indicator = indicators[i];
+            boolean isActive = end[i] > currentTime;
             indicator.setVisible(isActive);
             if (isActive) {
-                TimingInformation timing = activeIndicators.get(indicator);
-                indicator.setTint(indicator.getTint().setAlpha(timing.lerp(currentTime)));
+                float alpha = currentTime / (end[i] - start[i]);
+                indicator.setTint(indicator.getTint().setAlpha(alpha));
             }
         }
-        super.onDraw(canvas);
     }
 
     public void show(Direction damageDirection, float durationInSeconds) {
-        float currentTime = time.getGameTime();
-        activeIndicators.put(imageForDirection(damageDirection), new TimingInformation(currentTime,
-                currentTime + durationInSeconds));
+        show(damageDirection, durationInSeconds, time.getGameTime());
+    }
+
+    private void show(Direction damageDirection, float durationInSeconds, float currentTime) {
+        int slot = slotForDirection(damageDirection);
+        start[slot] = currentTime;
+        end[slot] = currentTime + durationInSeconds;
     }
 }
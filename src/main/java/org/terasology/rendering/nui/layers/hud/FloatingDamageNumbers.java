@@ -0,0 +1,182 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.rendering.nui.layers.hud;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.cameras.Camera;
+import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
+import org.terasology.engine.rendering.world.WorldRenderer;
+import org.terasology.joml.geom.Rectanglei;
+import org.terasology.nui.Canvas;
+import org.terasology.nui.widgets.UILabel;
+
+/**
+ * Shows the damage dealt to entities as numbers floating above them.
+ * <p>
+ * Hits on the same entity within a short window are aggregated into a single number. Labels are taken from a fixed
+ * pool, which also caps the number of concurrently shown numbers; if the pool is exhausted, the oldest number is
+ * replaced. Apart from converting numbers outside of a small cached range to text, neither showing nor drawing damage
+ * numbers allocates.
+ */
+public class FloatingDamageNumbers extends CoreHudWidget {
+
+    /** The maximum number of concurrently shown damage numbers. */
+    static final int POOL_SIZE = 32;
+    /** Hits on the same entity within this time span (in seconds) are added to the same number. */
+    static final float AGGREGATION_WINDOW = 0.4f;
+    /** The time (in seconds) a damage number is shown after the last aggregated hit. */
+    static final float DURATION = 1.2f;
+    /** How far (in blocks) a damage number rises during its lifetime. */
+    private static final float RISE = 1f;
+    private static final float HEIGHT_OFFSET = 1f;
+    private static final int LABEL_WIDTH = 64;
+    private static final int LABEL_HEIGHT = 20;
+    /** Damage amounts below this are converted to text once and then reused. */
+    private static final int CACHED_TEXTS = 1000;
+
+    private static final String[] TEXTS = new String[CACHED_TEXTS];
+
+    @In
+    private Time time;
+    @In
+    private WorldRenderer worldRenderer;
+
+    private final UILabel[] labels = new UILabel[POOL_SIZE];
+    private final EntityRef[] targets = new EntityRef[POOL_SIZE];
+    private final Vector3f[] positions = new Vector3f[POOL_SIZE];
+    private final int[] amounts = new int[POOL_SIZE];
+    /** In-game time (in seconds) of the last hit aggregated into each number, negative for unused slots. */
+    private final float[] lastHit = new float[POOL_SIZE];
+
+    private final Matrix4f viewProjection = new Matrix4f();
+    private final Vector4f screenPosition = new Vector4f();
+    private final Rectanglei region = new Rectanglei();
+
+    @Override
+    public void initialise() {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            labels[i] = new UILabel();
+            labels[i].setFamily("damageNumber");
+            targets[i] = EntityRef.NULL;
+            positions[i] = new Vector3f();
+            lastHit[i] = -1;
+        }
+    }
+
+    /**
+     * Shows the given damage above the target, adding it to the number already shown for the target if it was hit
+     * recently.
+     *
+     * @param target the damaged entity
+     * @param amount the amount of damage dealt
+     * @param position the world position of the damaged entity
+     */
+    public void show(EntityRef target, int amount, Vector3fc position) {
+        show(target, amount, position, time.getGameTime());
+    }
+
+    @VisibleForTesting
+    void show(EntityRef target, int amount, Vector3fc position, float currentTime) {
+        int slot = -1;
+        int oldest = 0;
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (lastHit[i] >= 0 && targets[i].equals(target) && currentTime - lastHit[i] < AGGREGATION_WINDOW) {
+                amounts[i] += amount;
+                setText(i);
+                lastHit[i] = currentTime;
+                positions[i].set(position);
+                return;
+            }
+            if (slot < 0 && isExpired(i, currentTime)) {
+                slot = i;
+            }
+            if (lastHit[i] < lastHit[oldest]) {
+                oldest = i;
+            }
+        }
+        if (slot < 0) {
+            slot = oldest;
+        }
+        targets[slot] = target;
+        amounts[slot] = amount;
+        setText(slot);
+        lastHit[slot] = currentTime;
+        positions[slot].set(position);
+    }
+
+    @Override
+    public void onDraw(Canvas canvas) {
+        Camera camera = worldRenderer.getActiveCamera();
+        if (camera != null) {
+            drawNumbers(canvas, camera);
+        }
+        super.onDraw(canvas);
+    }
+
+    private void drawNumbers(Canvas canvas, Camera camera) {
+        float currentTime = time.getGameTime();
+        Vector3f cameraPosition = camera.getPosition();
+        viewProjection.set(camera.getProjectionMatrix()).mul(camera.getViewMatrix());
+        int width = canvas.size().x;
+        int height = canvas.size().y;
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (isExpired(i, currentTime)) {
+                targets[i] = EntityRef.NULL;
+                continue;
+            }
+            float age = (currentTime - lastHit[i]) / DURATION;
+            Vector3f position = positions[i];
+            screenPosition.set(position.x - cameraPosition.x, position.y + HEIGHT_OFFSET + age * RISE - cameraPosition.y,
+                    position.z - cameraPosition.z, 1);
+            viewProjection.transform(screenPosition);
+            if (screenPosition.w <= 0) {
+                // behind the camera
+                continue;
+            }
+            int x = (int) ((screenPosition.x / screenPosition.w + 1) / 2 * width);
+            int y = (int) ((1 - screenPosition.y / screenPosition.w) / 2 * height);
+            region.setMin(x - LABEL_WIDTH / 2, y - LABEL_HEIGHT / 2).setSize(LABEL_WIDTH, LABEL_HEIGHT);
+            canvas.drawWidget(labels[i], region);
+        }
+    }
+
+    /**
+     * The label showing the latest damage number of the given target, or null if none is shown.
+     */
+    @VisibleForTesting
+    UILabel findLabel(EntityRef target, float currentTime) {
+        int latest = -1;
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (targets[i].equals(target) && !isExpired(i, currentTime)
+                    && (latest < 0 || lastHit[i] > lastHit[latest])) {
+                latest = i;
+            }
+        }
+        return latest >= 0 ? labels[latest] : null;
+    }
+
+    private boolean isExpired(int slot, float currentTime) {
+        return lastHit[slot] < 0 || currentTime - lastHit[slot] > DURATION;
+    }
+
+    private void setText(int slot) {
+        int amount = amounts[slot];
+        if (amount >= 0 && amount < CACHED_TEXTS) {
+            if (TEXTS[amount] == null) {
+                TEXTS[amount] = Integer.toString(amount);
+            }
+            labels[slot].setText(TEXTS[amount]);
+        } else {
+            labels[slot].setText(Integer.toString(amount));
+        }
+    }
+}
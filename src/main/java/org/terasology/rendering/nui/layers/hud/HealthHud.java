@@ -16,16 +16,21 @@
 package org.terasology.rendering.nui.layers.hud;
 
 import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
-import org.terasology.logic.health.HealthComponent;
-import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.logic.health.LocalPlayerHealthSystem;
 import org.terasology.nui.databinding.ReadOnlyBinding;
 import org.terasology.nui.widgets.UIIconBar;
 import org.terasology.engine.registry.In;
 
+/**
+ * Shows the health of the local player as a bar of hearts.
+ * <p>
+ * The values are read from the {@link LocalPlayerHealthSystem} so that no entity lookups are needed when the UI is
+ * evaluated.
+ */
 public class HealthHud extends CoreHudWidget {
 
     @In
-    private LocalPlayer localPlayer;
+    private LocalPlayerHealthSystem localPlayerHealth;
 
     @Override
     public void initialise() {
@@ -33,21 +38,13 @@ public class HealthHud extends CoreHudWidget {
         healthBar.bindValue(new ReadOnlyBinding<Float>() {
             @Override
             public Float get() {
-                HealthComponent healthComponent = localPlayer.getCharacterEntity().getComponent(HealthComponent.class);
-                if (healthComponent != null) {
-                    return (float) healthComponent.currentHealth;
-                }
-                return 0f;
+                return localPlayerHealth.getCurrentHealth();
             }
         });
         healthBar.bindMaxValue(new ReadOnlyBinding<Float>() {
             @Override
             public Float get() {
-                HealthComponent healthComponent = localPlayer.getCharacterEntity().getComponent(HealthComponent.class);
-                if (healthComponent != null) {
-                    return (float) healthComponent.maxHealth;
-                }
-                return 0f;
+                return localPlayerHealth.getMaxHealth();
             }
         });
     }
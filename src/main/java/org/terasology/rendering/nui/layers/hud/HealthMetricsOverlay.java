@@ -0,0 +1,31 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.hud;
+
+import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
+import org.terasology.logic.health.HealthMetricsSystem;
+import org.terasology.nui.databinding.ReadOnlyBinding;
+import org.terasology.nui.widgets.UILabel;
+
+/**
+ * Debug overlay showing the metrics collected by the {@link HealthMetricsSystem}.
+ * <p>
+ * The shown text is formatted once per metrics window by the metrics system, not on every frame.
+ */
+public class HealthMetricsOverlay extends CoreHudWidget {
+
+    @In
+    private HealthMetricsSystem metrics;
+
+    @Override
+    public void initialise() {
+        UILabel label = find("metrics", UILabel.class);
+        label.bindText(new ReadOnlyBinding<String>() {
+            @Override
+            public String get() {
+                return metrics.getSummary();
+            }
+        });
+    }
+}
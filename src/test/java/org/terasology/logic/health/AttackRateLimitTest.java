@@ -0,0 +1,106 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.logic.characters.events.AttackEvent;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class AttackRateLimitTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected Time time;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected AttackRateLimitSystem attackRateLimitSystem;
+
+    EntityRef createTarget() {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        health.regenRate = 0;
+        return entityManager.create(health);
+    }
+
+    EntityRef createWeapon(Prefab damageType) {
+        ItemComponent item = new ItemComponent();
+        item.baseDamage = 1;
+        item.damageType = damageType;
+        return entityManager.create(item);
+    }
+
+    int currentHealth(EntityRef entity) {
+        return entity.getComponent(HealthComponent.class).currentHealth;
+    }
+
+    @Test
+    public void attacksWithoutLimitAreNotDropped() {
+        EntityRef instigator = entityManager.create();
+        EntityRef target = createTarget();
+        EntityRef weapon = createWeapon(EngineDamageTypes.EXPLOSIVE.get());
+
+        for (int i = 0; i < 20; i++) {
+            target.send(new AttackEvent(instigator, weapon));
+        }
+
+        assertEquals(80, currentHealth(target));
+        assertFalse(attackRateLimitSystem.getDroppedAttacks().containsKey(EngineDamageTypes.EXPLOSIVE.get().getName()));
+    }
+
+    @Test
+    public void attacksBeyondBurstAreDroppedUntilRefilled() {
+        attackRateLimitSystem.setLimit(EngineDamageTypes.PHYSICAL.get(), 10, 2);
+        EntityRef instigator = entityManager.create();
+        EntityRef target = createTarget();
+
+        for (int i = 0; i < 3; i++) {
+            target.send(new AttackEvent(instigator, EntityRef.NULL));
+        }
+        assertEquals(98, currentHealth(target));
+        assertEquals(1L, attackRateLimitSystem.getDroppedAttacks().get(EngineDamageTypes.PHYSICAL.get().getName()));
+
+        // 10 attacks per second refill one token within 100ms
+        long refilled = time.getGameTimeInMs() + 150;
+        assertFalse(helper.runWhile(1000, () -> time.getGameTimeInMs() < refilled), "time out");
+        target.send(new AttackEvent(instigator, EntityRef.NULL));
+        assertEquals(97, currentHealth(target));
+    }
+
+    @Test
+    public void limitOnlyAppliesToItsDamageType() {
+        attackRateLimitSystem.setLimit(EngineDamageTypes.DROWNING.get(), 0, 1);
+        EntityRef instigator = entityManager.create();
+        EntityRef target = createTarget();
+        EntityRef limitedWeapon = createWeapon(EngineDamageTypes.DROWNING.get());
+        EntityRef weapon = createWeapon(EngineDamageTypes.EXPLOSIVE.get());
+
+        for (int i = 0; i < 5; i++) {
+            target.send(new AttackEvent(instigator, limitedWeapon));
+            target.send(new AttackEvent(instigator, weapon));
+        }
+
+        assertEquals(94, currentHealth(target));
+        assertEquals(4L, attackRateLimitSystem.getDroppedAttacks().get(EngineDamageTypes.DROWNING.get().getName()));
+        assertThrows(UnsupportedOperationException.class, () -> attackRateLimitSystem.getDroppedAttacks().clear());
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabData;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.logic.health.BlockHealthProfilesComponent.BlockHealthSettings;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class BlockHealthProfilesTest {
+
+    @In
+    protected BlockHealthProfiles blockHealthProfiles;
+    @In
+    protected BlockManager blockManager;
+    @In
+    protected AssetManager assetManager;
+
+    private final List<Prefab> prefabs = new ArrayList<>();
+
+    @AfterEach
+    public void disposeProfiles() {
+        prefabs.forEach(Prefab::dispose);
+        prefabs.clear();
+        blockHealthProfiles.reload();
+    }
+
+    /**
+     * Adds a prefab with the given block health profiles, as another module would ship it.
+     */
+    void addProfiles(String name, Map<String, BlockHealthSettings> profiles) {
+        BlockHealthProfilesComponent component = new BlockHealthProfilesComponent();
+        component.profiles.putAll(profiles);
+        PrefabData data = new PrefabData();
+        data.addComponent(component);
+        prefabs.add(assetManager.loadAsset(new ResourceUrn("Health", name), data, Prefab.class));
+        blockHealthProfiles.reload();
+    }
+
+    BlockHealthSettings settings(int maxHealth, float repairSeconds, float waitBeforeRepair,
+                                 boolean destroyOnNoHealth) {
+        BlockHealthSettings settings = new BlockHealthSettings();
+        settings.maxHealth = maxHealth;
+        settings.repairSeconds = repairSeconds;
+        settings.waitBeforeRepair = waitBeforeRepair;
+        settings.destroyOnNoHealth = destroyOnNoHealth;
+        return settings;
+    }
+
+    @Test
+    public void blockHealthDefaultsToHardness() {
+        Block testBlock = blockManager.getBlock("health:test");
+
+        HealthComponent health = blockHealthProfiles.createHealth(testBlock);
+        assertEquals(testBlock.getHardness(), health.maxHealth);
+        assertEquals(testBlock.getHardness(), health.currentHealth);
+        assertEquals(testBlock.getHardness() / 4f, health.regenRate);
+        assertEquals(1f, health.waitBeforeRegen);
+        assertTrue(health.destroyEntityOnNoHealth);
+    }
+
+    @Test
+    public void blockFamilyProfileOverridesCategoryProfile() {
+        addProfiles("testFamilyOverride", Map.of(
+                "Health:test", settings(50, 10, 2, true),
+                "soil", settings(0, 0, 1, false)));
+        Block testBlock = blockManager.getBlock("health:test");
+
+        HealthComponent health = blockHealthProfiles.createHealth(testBlock);
+        assertEquals(50, health.maxHealth);
+        assertEquals(5f, health.regenRate);
+        assertEquals(2f, health.waitBeforeRegen);
+        assertTrue(health.destroyEntityOnNoHealth);
+    }
+
+    @Test
+    public void blockCategoryProfileIsUsedWithoutFamilyProfile() {
+        addProfiles("testCategoryOverride", Map.of("soil", settings(0, 0, 1, false)));
+        Block testBlock = blockManager.getBlock("health:test");
+
+        HealthComponent health = blockHealthProfiles.createHealth(testBlock);
+        assertEquals(testBlock.getHardness(), health.maxHealth);
+        assertEquals(0f, health.regenRate);
+        assertEquals(1f, health.waitBeforeRegen);
+        assertFalse(health.destroyEntityOnNoHealth);
+    }
+
+    @Test
+    public void profilesOfSeveralPrefabsAreMerged() {
+        addProfiles("testProfilesA", Map.of("Health:test", settings(50, 10, 2, true)));
+        addProfiles("testProfilesB", Map.of("soil", settings(30, 0, 1, false)));
+        Block testBlock = blockManager.getBlock("health:test");
+
+        assertEquals(50, blockHealthProfiles.createHealth(testBlock).maxHealth);
+    }
+
+    @Test
+    public void profileOfLastPrefabWins() {
+        addProfiles("testProfilesA", Map.of("soil", settings(30, 0, 1, false)));
+        addProfiles("testProfilesB", Map.of("soil", settings(40, 0, 1, false)));
+        Block testBlock = blockManager.getBlock("health:test");
+
+        assertEquals(40, blockHealthProfiles.createHealth(testBlock).maxHealth);
+    }
+}
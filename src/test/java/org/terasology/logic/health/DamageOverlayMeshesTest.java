@@ -0,0 +1,126 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.logic.health.DamagedBlockIndex.DamagedBlock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DamageOverlayMeshesTest {
+
+    DamagedBlockIndex index;
+    EntityManager entityManager;
+    DamageOverlayMeshes meshes;
+    boolean[] hasTexture;
+
+    @BeforeEach
+    void setup() {
+        index = new DamagedBlockIndex();
+        entityManager = new PojoEntityManager();
+        meshes = new DamageOverlayMeshes();
+        hasTexture = new boolean[DamagedBlockIndex.EFFECT_LEVELS];
+        Arrays.fill(hasTexture, true);
+    }
+
+    void putBlock(int z, int effect) {
+        index.putBlock(entityManager.create(), new Vector3i(0, 0, z), effect);
+    }
+
+    Set<Integer> selectedZ(List<DamagedBlock> selected) {
+        return selected.stream().map(block -> block.position.z()).collect(Collectors.toSet());
+    }
+
+    @Test
+    void blocksBeyondMaxDistanceAreCulled() {
+        putBlock(10, 1);
+        putBlock(20, 1);
+        putBlock(60, 1);
+
+        List<DamagedBlock> selected = meshes.select(index.getBlocks(), hasTexture, new Vector3f(), 50, 10);
+
+        assertEquals(Set.of(10, 20), selectedZ(selected));
+    }
+
+    @Test
+    void onlyClosestBlocksAreKeptBeyondMaxCount() {
+        putBlock(40, 1);
+        putBlock(10, 2);
+        putBlock(30, 3);
+        putBlock(20, 4);
+        putBlock(-15, 5);
+
+        List<DamagedBlock> selected = meshes.select(index.getBlocks(), hasTexture, new Vector3f(), 50, 3);
+
+        assertEquals(Set.of(10, -15, 20), selectedZ(selected));
+    }
+
+    @Test
+    void blocksAtEqualDistanceFillUpToMaxCount() {
+        putBlock(10, 1);
+        putBlock(-10, 1);
+        putBlock(10, 2);
+        putBlock(5, 1);
+
+        List<DamagedBlock> selected = meshes.select(index.getBlocks(), hasTexture, new Vector3f(), 50, 3);
+
+        assertEquals(3, selected.size());
+        assertTrue(selectedZ(selected).contains(5));
+    }
+
+    @Test
+    void regionsAreSelectedByTheirClosestBlock() {
+        // the minimum corner of the region is far away, but the region reaches up to the camera
+        index.putRegion(entityManager.create(), new BlockRegion(0, 0, -100, 0, 0, 100), 1);
+        putBlock(30, 1);
+
+        List<DamagedBlock> selected = meshes.select(index.getBlocks(), hasTexture, new Vector3f(), 50, 1);
+
+        assertEquals(1, selected.size());
+        assertEquals(-100, selected.get(0).position.z());
+    }
+
+    @Test
+    void blocksWithoutTextureAreSkipped() {
+        putBlock(10, 1);
+        putBlock(20, 2);
+        hasTexture[1] = false;
+
+        List<DamagedBlock> selected = meshes.select(index.getBlocks(), hasTexture, new Vector3f(), 50, 10);
+
+        assertEquals(Set.of(20), selectedZ(selected));
+    }
+
+    @Test
+    void blocksAreGroupedByCell() {
+        int size = DamageOverlayMeshes.CELL_SIZE;
+        putBlock(0, 1);
+        putBlock(size - 1, 2);
+        putBlock(size, 1);
+        putBlock(-1, 1);
+        // regions belong to the cell of their minimum corner
+        index.putRegion(entityManager.create(), new BlockRegion(0, 0, 1, 0, 0, 3 * size), 3);
+
+        Map<Vector3i, List<DamagedBlock>> cells = DamageOverlayMeshes.groupByCell(new ArrayList<>(index.getBlocks()));
+
+        assertEquals(Set.of(new Vector3i(0, 0, 0), new Vector3i(0, 0, 1), new Vector3i(0, 0, -1)), cells.keySet());
+        assertEquals(Set.of(0, size - 1, 1), selectedZ(cells.get(new Vector3i(0, 0, 0))));
+        assertEquals(Set.of(size), selectedZ(cells.get(new Vector3i(0, 0, 1))));
+        assertEquals(Set.of(-1), selectedZ(cells.get(new Vector3i(0, 0, -1))));
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DamagedBlockIndexTest {
+
+    DamagedBlockIndex index;
+    EntityRef block;
+
+    @BeforeEach
+    void setup() {
+        index = new DamagedBlockIndex();
+        block = new PojoEntityManager().create();
+    }
+
+    @Test
+    void replacesEffectOfDamagedBlock() {
+        index.putBlock(block, new Vector3i(1, 2, 3), 4);
+
+        index.putBlock(block, new Vector3i(1, 2, 3), 5);
+        assertEquals(1, index.size());
+        assertEquals(5, index.getBlocks().iterator().next().effect);
+    }
+
+    @Test
+    void versionOnlyChangesOnActualChange() {
+        index.putBlock(block, new Vector3i(1, 2, 3), 4);
+        int version = index.getVersion();
+
+        index.putBlock(block, new Vector3i(1, 2, 3), 4);
+        assertEquals(version, index.getVersion());
+
+        index.remove(block);
+        assertTrue(index.getVersion() > version);
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,158 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.registry.In;
+import org.terasology.logic.health.event.ActivateRegenEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.DoRestoreEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the damage, restoration and regeneration hot paths against allocation regressions.
+ * <p>
+ * Most of the allocations on these paths are made by the engine's event dispatch, which differs between engine
+ * versions and JVMs. The budgets are thus calibrated in the same run: the allocation of a single dispatch (saving a
+ * health component) is measured first, and each budget allows the number of dispatches of its path plus a small margin
+ * for the objects the health systems create themselves, e.g., the events.
+ */
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthAllocationTest {
+
+    private static final int WARM_UP = 1_000;
+    private static final int ITERATIONS = 10_000;
+
+    /**
+     * DoDamageEvent, BeforeDamagedEvent, health saved, OnDamagedEvent, DeactivateRegenEvent, and cancelling and
+     * scheduling the delayed regeneration.
+     */
+    private static final int DAMAGE_DISPATCHES = 7;
+    private static final long DAMAGE_MARGIN_BYTES = 1024;
+    /** DoRestoreEvent, BeforeRestoreEvent, health saved, OnRestoredEvent. */
+    private static final int RESTORE_DISPATCHES = 4;
+    private static final long RESTORE_MARGIN_BYTES = 512;
+    /** Health saved, once per regeneration tick with the default health sync interval. */
+    private static final int REGEN_TICK_DISPATCHES = 1;
+    private static final long REGEN_TICK_MARGIN_BYTES = 256;
+
+    private static final int REGEN_ENTITIES = 2_000;
+    private static final long REGEN_WINDOW_MS = 3_000;
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthMetricsSystem metrics;
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The bytes allocated by a single event dispatch, measured by saving a health component.
+     */
+    long dispatchBytes() {
+        EntityRef entity = createEntity(1);
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        for (int i = 0; i < WARM_UP; i++) {
+            entity.saveComponent(health);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            entity.saveComponent(health);
+        }
+        long perDispatch = (allocatedBytes() - before) / ITERATIONS;
+        entity.destroy();
+        return perDispatch;
+    }
+
+    EntityRef createEntity(int currentHealth) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 1_000_000;
+        health.currentHealth = currentHealth;
+        health.waitBeforeRegen = 1000;
+        return entityManager.create(health);
+    }
+
+    @Test
+    public void damageHitAllocationWithinBudget() {
+        long budget = DAMAGE_DISPATCHES * dispatchBytes() + DAMAGE_MARGIN_BYTES;
+        EntityRef entity = createEntity(1_000_000);
+        for (int i = 0; i < WARM_UP; i++) {
+            entity.send(new DoDamageEvent(1));
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            entity.send(new DoDamageEvent(1));
+        }
+        long perHit = (allocatedBytes() - before) / ITERATIONS;
+
+        assertTrue(perHit <= budget, "a damage hit allocated " + perHit + " bytes, budget " + budget);
+    }
+
+    @Test
+    public void restoreAllocationWithinBudget() {
+        long budget = RESTORE_DISPATCHES * dispatchBytes() + RESTORE_MARGIN_BYTES;
+        EntityRef entity = createEntity(1);
+        for (int i = 0; i < WARM_UP; i++) {
+            entity.send(new DoRestoreEvent(1));
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            entity.send(new DoRestoreEvent(1));
+        }
+        long perRestore = (allocatedBytes() - before) / ITERATIONS;
+
+        assertTrue(perRestore <= budget, "a restore allocated " + perRestore + " bytes, budget " + budget);
+    }
+
+    @Test
+    public void regenTickAllocationWithinBudget() {
+        long budget = REGEN_TICK_DISPATCHES * dispatchBytes() + REGEN_TICK_MARGIN_BYTES;
+        // the engine loop allocates by itself, measure it without regenerating entities first
+        helper.runWhile(REGEN_WINDOW_MS, () -> true);
+        long before = allocatedBytes();
+        helper.runWhile(REGEN_WINDOW_MS, () -> true);
+        long baseline = allocatedBytes() - before;
+
+        List<EntityRef> entities = new ArrayList<>();
+        for (int i = 0; i < REGEN_ENTITIES; i++) {
+            EntityRef entity = createEntity(1);
+            entity.send(new ActivateRegenEvent("test", 1, 60));
+            entities.add(entity);
+        }
+        // warm up
+        helper.runWhile(REGEN_WINDOW_MS, () -> true);
+
+        metrics.setEnabled(true);
+        before = allocatedBytes();
+        helper.runWhile(REGEN_WINDOW_MS, () -> true);
+        long allocated = allocatedBytes() - before;
+        long ticks = metrics.getCount(HealthMetricsSystem.Counter.REGEN_TICKS);
+        metrics.setEnabled(false);
+
+        assertTrue(ticks >= REGEN_ENTITIES, "expected every entity to regenerate, but only " + ticks + " ticks ran");
+        long perTick = Math.max(0, allocated - baseline) / ticks;
+        assertTrue(perTick <= budget, "a regen tick allocated " + perTick + " bytes, budget " + budget);
+
+        entities.forEach(EntityRef::destroy);
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.logic.health.HealthBarMesh.HealthBar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HealthBarMeshTest {
+
+    EntityManager entityManager;
+    HealthBarMesh barMesh;
+    List<EntityRef> damagedEntities;
+
+    @BeforeEach
+    void setup() {
+        entityManager = new PojoEntityManager();
+        barMesh = new HealthBarMesh();
+        damagedEntities = new ArrayList<>();
+    }
+
+    EntityRef createEntity(float z, int currentHealth) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = currentHealth;
+        EntityRef entity = entityManager.create(health, new LocationComponent(new Vector3f(0, 0, z)));
+        damagedEntities.add(entity);
+        return entity;
+    }
+
+    List<HealthBar> select(EntityRef character) {
+        return barMesh.select(damagedEntities, character, new Vector3f(), bounds -> true);
+    }
+
+    Set<EntityRef> entities(List<HealthBar> bars) {
+        return bars.stream().map(bar -> bar.entity).collect(Collectors.toSet());
+    }
+
+    @Test
+    void barsBeyondMaxDistanceAreCulled() {
+        EntityRef close = createEntity(10, 50);
+        createEntity(HealthBarMesh.MAX_DISTANCE + 1, 50);
+
+        assertEquals(Set.of(close), entities(select(EntityRef.NULL)));
+    }
+
+    @Test
+    void barsOutOfSightAreCulled() {
+        createEntity(10, 50);
+        EntityRef inSight = createEntity(-10, 50);
+
+        List<HealthBar> bars = barMesh.select(damagedEntities, EntityRef.NULL, new Vector3f(),
+                bounds -> bounds.minZ < 0);
+
+        assertEquals(Set.of(inSight), entities(bars));
+    }
+
+    @Test
+    void characterOfLocalPlayerHasNoBar() {
+        EntityRef character = createEntity(2, 50);
+        EntityRef other = createEntity(3, 50);
+
+        assertEquals(Set.of(other), entities(select(character)));
+    }
+
+    @Test
+    void onlyClosestBarsAreKeptBeyondMaxBars() {
+        for (int i = 0; i < HealthBarMesh.MAX_BARS; i++) {
+            createEntity(10 + i * 0.1f, 50);
+        }
+        EntityRef farthest = createEntity(40, 50);
+        EntityRef closest = createEntity(5, 50);
+
+        Set<EntityRef> selected = entities(select(EntityRef.NULL));
+
+        assertEquals(HealthBarMesh.MAX_BARS, selected.size());
+        assertTrue(selected.contains(closest));
+        assertFalse(selected.contains(farthest));
+    }
+
+    @Test
+    void farBarsAreDrawnWithoutBackground() {
+        createEntity(HealthBarMesh.LOD_DISTANCE - 5, 25);
+        createEntity(HealthBarMesh.LOD_DISTANCE + 5, 75);
+
+        List<HealthBar> bars = select(EntityRef.NULL);
+
+        assertEquals(2, bars.size());
+        for (HealthBar bar : bars) {
+            if (bar.distanceSquared < HealthBarMesh.LOD_DISTANCE * HealthBarMesh.LOD_DISTANCE) {
+                assertTrue(bar.background);
+                assertEquals(0.25f, bar.fill);
+            } else {
+                assertFalse(bar.background);
+                assertEquals(0.75f, bar.fill);
+            }
+        }
+    }
+}
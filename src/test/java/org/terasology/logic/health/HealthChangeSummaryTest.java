@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.HealthChangeSummaryEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthChangeSummaryTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+
+    EntityRef createEntity(boolean summarized) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        health.regenRate = 0;
+        EntityRef entity = entityManager.create(health);
+        if (summarized) {
+            entity.addComponent(new HealthChangeSummaryComponent());
+        }
+        return entity;
+    }
+
+    @Test
+    public void hitsWithinOneUpdateAreSummarizedOnce() {
+        TestEventReceiver<HealthChangeSummaryEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                HealthChangeSummaryEvent.class);
+        List<HealthChangeSummaryEvent> events = receiver.getEvents();
+        EntityRef instigator = entityManager.create();
+        EntityRef entity = createEntity(true);
+        EntityRef untracked = createEntity(false);
+
+        for (int i = 0; i < 20; i++) {
+            entity.send(new DoDamageEvent(2, EngineDamageTypes.DIRECT.get(), instigator));
+            untracked.send(new DoDamageEvent(2, EngineDamageTypes.DIRECT.get(), instigator));
+        }
+        assertFalse(helper.runUntil(1000, () -> !events.isEmpty()), "time out");
+        // later updates without damage do not send further summaries
+        helper.runWhile(200, () -> true);
+
+        assertEquals(1, events.size());
+        HealthChangeSummaryEvent summary = events.get(0);
+        assertEquals(40, summary.getTotalDamage());
+        assertEquals(20, summary.getHitCount());
+        assertEquals(0, summary.getTotalRestore());
+        assertEquals(0, summary.getRestoreCount());
+        assertEquals(Collections.singleton(instigator), summary.getInstigators());
+    }
+}
@@ -0,0 +1,178 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.registry.In;
+import org.terasology.logic.health.event.ActivateRegenEvent;
+import org.terasology.logic.health.event.AddMaxHealthModifierEvent;
+import org.terasology.logic.health.event.AddShieldEvent;
+import org.terasology.logic.health.event.DeactivateRegenEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.DoRestoreEvent;
+import org.terasology.logic.health.event.RemoveMaxHealthModifierEvent;
+import org.terasology.logic.health.event.RemoveShieldEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthEventRecordingTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthEventRecorder recorder;
+    @In
+    protected HealthEventReplayer replayer;
+
+    @Test
+    public void recordingIsReplayed() throws IOException {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        EntityRef entity = entityManager.create(health);
+        int entitiesWithHealth = entityManager.getCountOfEntitiesWith(HealthComponent.class);
+
+        recorder.start("recordingIsReplayed");
+        entity.send(new DoDamageEvent(10));
+        entity.send(new DoRestoreEvent(5));
+        entity.send(new ActivateRegenEvent("test", 1, 2));
+        entity.send(new DeactivateRegenEvent("test"));
+        // the deactivation of the base regeneration on damage is sent by the damage system and not recorded
+        assertEquals(4, recorder.stop());
+        assertEquals(95, entity.getComponent(HealthComponent.class).currentHealth);
+
+        TestEventReceiver<DoDamageEvent> damageReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                DoDamageEvent.class);
+        TestEventReceiver<DoRestoreEvent> restoreReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                DoRestoreEvent.class);
+        int[] replayedHealth = new int[1];
+        TestEventReceiver<DeactivateRegenEvent> deactivateReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                DeactivateRegenEvent.class, (event, replayed) ->
+                replayedHealth[0] = replayed.getComponent(HealthComponent.class).currentHealth);
+
+        // events sent by the replayer must not end up in another recording
+        recorder.start("recordingIsReplayedAgain");
+        replayer.start("recordingIsReplayed", 2);
+        assertFalse(helper.runWhile(5000, replayer::isReplaying), "time out");
+        assertEquals(0, recorder.stop());
+
+        assertTrue(replayer.getLastReport().startsWith("Replayed 4 health events"), replayer.getLastReport());
+        assertEquals(1, damageReceiver.getEvents().size());
+        assertEquals(1, restoreReceiver.getEvents().size());
+        // once derived from the damage and once replayed
+        assertEquals(2, deactivateReceiver.getEvents().size());
+        assertEquals(95, replayedHealth[0]);
+        assertEquals(entitiesWithHealth, entityManager.getCountOfEntitiesWith(HealthComponent.class),
+                "replayed entities should be destroyed after the replay");
+    }
+
+    @Test
+    public void shieldAndModifierEventsAreReplayed() throws IOException {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        EntityRef entity = entityManager.create(health);
+
+        recorder.start("shieldAndModifierEventsAreReplayed");
+        entity.send(new AddShieldEvent("recordedShield", 30));
+        entity.send(AddMaxHealthModifierEvent.postAdd("recordedModifier", 20));
+        entity.send(new RemoveShieldEvent("recordedShield"));
+        entity.send(new RemoveMaxHealthModifierEvent("recordedModifier"));
+        assertEquals(4, recorder.stop());
+
+        TestEventReceiver<AddShieldEvent> addShieldReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                AddShieldEvent.class);
+        TestEventReceiver<RemoveShieldEvent> removeShieldReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                RemoveShieldEvent.class);
+        TestEventReceiver<AddMaxHealthModifierEvent> addModifierReceiver = new TestEventReceiver<>(
+                helper.getHostContext(), AddMaxHealthModifierEvent.class);
+        TestEventReceiver<RemoveMaxHealthModifierEvent> removeModifierReceiver = new TestEventReceiver<>(
+                helper.getHostContext(), RemoveMaxHealthModifierEvent.class);
+
+        replayer.start("shieldAndModifierEventsAreReplayed", 1);
+        assertFalse(helper.runWhile(5000, replayer::isReplaying), "time out");
+
+        assertTrue(replayer.getLastReport().startsWith("Replayed 4 health events"), replayer.getLastReport());
+        assertEquals(1, addShieldReceiver.getEvents().size());
+        AddShieldEvent shield = addShieldReceiver.getEvents().get(0);
+        assertEquals("recordedShield", shield.getId());
+        assertEquals(30, shield.getAmount());
+        assertNull(shield.getDamageType());
+        assertTrue(shield.getDuration() < 0);
+        assertEquals(1, removeShieldReceiver.getEvents().size());
+        assertEquals(1, addModifierReceiver.getEvents().size());
+        AddMaxHealthModifierEvent modifier = addModifierReceiver.getEvents().get(0);
+        assertEquals(AddMaxHealthModifierEvent.Type.POST_ADD, modifier.getType());
+        assertEquals(20, modifier.getValue());
+        assertEquals(1, removeModifierReceiver.getEvents().size());
+    }
+
+    @Test
+    public void delayedRegenActivationIsNotRecorded() throws IOException {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        health.regenRate = 1;
+        health.waitBeforeRegen = 0.1f;
+        EntityRef entity = entityManager.create(health);
+        TestEventReceiver<ActivateRegenEvent> activateReceiver = new TestEventReceiver<>(helper.getHostContext(),
+                ActivateRegenEvent.class);
+
+        recorder.start("delayedRegenActivation");
+        entity.send(new DoDamageEvent(10));
+        assertFalse(helper.runUntil(1000, () -> !activateReceiver.getEvents().isEmpty()), "time out");
+        // the activation is scheduled again when the damage is replayed
+        assertEquals(1, recorder.stop());
+    }
+
+    @Test
+    public void recordingStoppedWhileReplayingIsFinished() throws IOException {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        EntityRef entity = entityManager.create(health);
+        recorder.start("stoppedWhileReplaying");
+        entity.send(new DoDamageEvent(10));
+        recorder.stop();
+
+        recorder.start("stoppedWhileReplayingAgain");
+        replayer.start("stoppedWhileReplaying", 1);
+        assertTrue(replayer.isReplaying());
+        recorder.stop();
+        assertFalse(recorder.isRecording());
+        assertFalse(helper.runWhile(5000, replayer::isReplaying), "time out");
+
+        // the recording was closed, so its header is complete
+        replayer.start("stoppedWhileReplayingAgain", 1);
+        assertFalse(helper.runWhile(5000, replayer::isReplaying), "time out");
+        assertTrue(replayer.getLastReport().startsWith("Replayed 0 health events"), replayer.getLastReport());
+    }
+
+    @Test
+    public void recordingNamesStayInRecordingsDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> recorder.start("../recordingOutside"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.start("nested/recording"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.start(""));
+        assertThrows(IllegalArgumentException.class, () -> replayer.start("..", 1));
+        assertFalse(recorder.isRecording());
+        assertFalse(replayer.isReplaying());
+    }
+}
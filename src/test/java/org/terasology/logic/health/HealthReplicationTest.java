@@ -0,0 +1,172 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.HealthConfigUpdateEvent;
+import org.terasology.logic.health.event.HealthUpdateEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthReplicationTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected BlockManager blockManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthReplicationSystem replicationSystem;
+
+    /**
+     * Creates a remote client whose character is at the given position, or without character if it is null.
+     */
+    EntityRef createClient(Vector3fc position) {
+        ClientComponent clientComponent = new ClientComponent();
+        if (position != null) {
+            clientComponent.character = entityManager.create(new LocationComponent(position));
+        }
+        return entityManager.create(clientComponent);
+    }
+
+    void destroyClient(EntityRef client) {
+        client.getComponent(ClientComponent.class).character.destroy();
+        client.destroy();
+    }
+
+    HealthComponent createHealth(int currentHealth) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = currentHealth;
+        health.regenRate = 0;
+        return health;
+    }
+
+    List<HealthUpdateEvent> updatesOf(TestEventReceiver<HealthUpdateEvent> receiver, EntityRef entity) {
+        return receiver.getEvents().stream().filter(event -> event.getEntity().equals(entity))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void createdEntityIsNotSentAgain() {
+        TestEventReceiver<HealthUpdateEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                HealthUpdateEvent.class);
+        List<EntityRef> configUpdates = new ArrayList<>();
+        new TestEventReceiver<>(helper.getHostContext(), HealthConfigUpdateEvent.class,
+                (event, entity) -> configUpdates.add(entity));
+        EntityRef client = createClient(null);
+        try {
+            // the health of a created entity is replicated with its initial state
+            EntityRef entity = entityManager.create(createHealth(100), new NetworkComponent());
+            helper.runWhile(500, () -> true);
+
+            assertTrue(updatesOf(receiver, entity).isEmpty());
+            assertFalse(configUpdates.contains(entity));
+        } finally {
+            destroyClient(client);
+        }
+    }
+
+    @Test
+    public void changedHealthIsSentToClients() {
+        TestEventReceiver<HealthUpdateEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                HealthUpdateEvent.class);
+        EntityRef client = createClient(null);
+        try {
+            EntityRef entity = entityManager.create(createHealth(100), new NetworkComponent());
+            helper.runWhile(200, () -> true);
+
+            entity.send(new DoDamageEvent(10));
+            assertFalse(helper.runUntil(1000, () -> !updatesOf(receiver, entity).isEmpty()), "time out");
+            HealthUpdateEvent update = updatesOf(receiver, entity).get(0);
+            assertEquals(90, update.getCurrentHealth());
+            assertEquals(100, update.getMaxHealth());
+        } finally {
+            destroyClient(client);
+        }
+    }
+
+    @Test
+    public void healthAddedToNetworkedBlockIsSentToClients() {
+        TestEventReceiver<HealthUpdateEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                HealthUpdateEvent.class);
+        Map<EntityRef, Float> replicatedRegenRates = new HashMap<>();
+        new TestEventReceiver<>(helper.getHostContext(), HealthConfigUpdateEvent.class,
+                (event, entity) -> replicatedRegenRates.put(entity, event.getRegenRate()));
+        EntityRef client = createClient(null);
+        try {
+            EntityRef block = entityManager.create(new NetworkComponent(),
+                    new BlockComponent(blockManager.getBlock("health:test"), new Vector3i(0, 20, 0)));
+            helper.runWhile(200, () -> true);
+
+            // the initial-only fields of a component added later are not part of the replicated entity state
+            HealthComponent health = createHealth(60);
+            health.regenRate = 3;
+            block.addComponent(health);
+            assertFalse(helper.runUntil(1000, () -> !updatesOf(receiver, block).isEmpty()), "time out");
+
+            HealthUpdateEvent update = updatesOf(receiver, block).get(0);
+            assertEquals(60, update.getCurrentHealth());
+            assertEquals(100, update.getMaxHealth());
+            assertEquals(3f, (float) replicatedRegenRates.get(block));
+        } finally {
+            destroyClient(client);
+        }
+    }
+
+    @Test
+    public void updateInReducedRateBandIsDeliveredOnNextReducedTick() {
+        TestEventReceiver<HealthUpdateEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                HealthUpdateEvent.class);
+        float fullRate = replicationSystem.getFullRateRadius();
+        float reducedRate = replicationSystem.getReducedRateRadius();
+        replicationSystem.setRelevanceRadii(10, 100);
+        EntityRef client = createClient(new Vector3f(0, 30, 0));
+        try {
+            EntityRef entity = entityManager.create(createHealth(100), new NetworkComponent(),
+                    new LocationComponent(new Vector3f(0, 30, 50)));
+            helper.runWhile(200, () -> true);
+
+            // the change is deferred to the next tick of the reduced rate, which is at most four network ticks away
+            entity.send(new DoDamageEvent(10));
+            assertFalse(helper.runUntil(500, () -> !updatesOf(receiver, entity).isEmpty()), "time out");
+            assertEquals(90, updatesOf(receiver, entity).get(0).getCurrentHealth());
+
+            // the deferred update is only delivered once
+            helper.runWhile(500, () -> true);
+            assertEquals(1, updatesOf(receiver, entity).size());
+        } finally {
+            destroyClient(client);
+            replicationSystem.setRelevanceRadii(fullRate, reducedRate);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.registry.In;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthSnapshotExporterTest {
+
+    private static final long TIMEOUT = 5000;
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthSnapshotExporter exporter;
+
+    @Test
+    public void snapshotContainsHealthOfEntities() throws IOException {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 42;
+        EntityRef entity = entityManager.create(health);
+
+        exporter.start("test", 1);
+        assertFalse(helper.runUntil(TIMEOUT, () -> exporter.getWrittenSnapshots() > 0), "time out");
+        exporter.stop();
+
+        HealthSnapshot snapshot = HealthSnapshot.open(exporter.getLastPath());
+        assertEquals(entityManager.getCountOfEntitiesWith(HealthComponent.class), snapshot.size());
+        boolean found = false;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.getEntityId(i) == entity.getId()) {
+                assertEquals(42, snapshot.getCurrentHealth(i));
+                assertEquals(100, snapshot.getMaxHealth(i));
+                assertEquals(0, snapshot.getActiveRegenEffects(i));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void snapshotNamesStayInSnapshotsDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> exporter.start("../snapshotOutside", 1));
+        assertThrows(IllegalArgumentException.class, () -> exporter.start("nested\\snapshot", 1));
+        assertThrows(IllegalArgumentException.class, () -> exporter.start("", 1));
+        assertFalse(exporter.isRunning());
+    }
+}
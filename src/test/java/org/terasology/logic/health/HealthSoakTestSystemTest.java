@@ -0,0 +1,42 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.registry.In;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class HealthSoakTestSystemTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected HealthSoakTestSystem soakTest;
+
+    @Test
+    public void soakTestRunsHeadlessAndCleansUp() {
+        int entitiesBefore = entityManager.getCountOfEntitiesWith(HealthComponent.class);
+
+        assertTrue(soakTest.start(100, 200, 50, 20, 10, 1));
+        assertFalse(soakTest.start(100, 200, 50, 20, 10, 1), "only one soak test may run at a time");
+        assertEquals(entitiesBefore + 100, entityManager.getCountOfEntitiesWith(HealthComponent.class));
+
+        assertFalse(helper.runWhile(5000, soakTest::isRunning), "time out");
+
+        assertEquals(entitiesBefore, entityManager.getCountOfEntitiesWith(HealthComponent.class));
+        assertTrue(soakTest.getLastReport().startsWith("Health soak test with 100 entities"));
+    }
+}
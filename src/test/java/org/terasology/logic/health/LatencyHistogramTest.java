@@ -0,0 +1,54 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    LatencyHistogram histogram;
+
+    @BeforeEach
+    void setup() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void bucketsAreAccurateToSixPercent() {
+        for (long value = 0; value < 1_000_000; value++) {
+            long bucketValue = LatencyHistogram.bucketValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(bucketValue <= value);
+            assertTrue(value - bucketValue <= Math.max(1, value / 16), "value " + value);
+        }
+    }
+
+    @Test
+    void hugeValuesAreCountedInLastBucket() {
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    void quantiles() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(500_000, histogram.getValueAtQuantile(0.5), 500_000 / 16);
+        assertEquals(990_000, histogram.getValueAtQuantile(0.99), 990_000 / 16);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+
+    @Test
+    void resetClearsAllValues() {
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+    }
+}
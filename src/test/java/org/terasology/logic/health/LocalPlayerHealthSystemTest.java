@@ -0,0 +1,29 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalPlayerHealthSystemTest {
+
+    @Test
+    void healthIsNotPredictedWithoutRegeneration() {
+        assertEquals(40f, LocalPlayerHealthSystem.predictHealth(40, 100, 0, 5000));
+    }
+
+    @Test
+    void healthIsInterpolatedWithRegenerationRate() {
+        assertEquals(40f, LocalPlayerHealthSystem.predictHealth(40, 100, 2, 0));
+        assertEquals(43f, LocalPlayerHealthSystem.predictHealth(40, 100, 2, 1500));
+        assertEquals(50f, LocalPlayerHealthSystem.predictHealth(40, 100, 2, 5000));
+    }
+
+    @Test
+    void predictedHealthIsCappedAtMaxHealth() {
+        assertEquals(100f, LocalPlayerHealthSystem.predictHealth(95, 100, 2, 10000));
+        assertEquals(120f, LocalPlayerHealthSystem.predictHealth(120, 100, 2, 10000));
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class LocalPlayerHealthTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected LocalPlayer localPlayer;
+    @In
+    protected LocalPlayerHealthSystem localPlayerHealth;
+
+    EntityRef createCharacter(int currentHealth) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = currentHealth;
+        health.regenRate = 0;
+        return entityManager.create(health);
+    }
+
+    /**
+     * Makes the given entity the character of the local player.
+     *
+     * @return the previous character
+     */
+    EntityRef setCharacter(EntityRef character) {
+        EntityRef client = localPlayer.getClientEntity();
+        ClientComponent clientComponent = client.getComponent(ClientComponent.class);
+        EntityRef previous = clientComponent.character;
+        clientComponent.character = character;
+        client.saveComponent(clientComponent);
+        return previous;
+    }
+
+    @Test
+    public void healthIsResetWhenCharacterLosesHealth() {
+        EntityRef character = createCharacter(60);
+        EntityRef previous = setCharacter(character);
+        try {
+            assertEquals(100f, localPlayerHealth.getMaxHealth());
+
+            character.removeComponent(HealthComponent.class);
+
+            assertEquals(0f, localPlayerHealth.getCurrentHealth());
+            assertEquals(0f, localPlayerHealth.getMaxHealth());
+        } finally {
+            setCharacter(previous);
+            character.destroy();
+        }
+    }
+
+    @Test
+    public void healthFollowsCharacterChange() {
+        EntityRef first = createCharacter(60);
+        EntityRef second = entityManager.create();
+        EntityRef previous = setCharacter(first);
+        try {
+            assertEquals(100f, localPlayerHealth.getMaxHealth());
+
+            // the new character has no health
+            setCharacter(second);
+            assertEquals(0f, localPlayerHealth.getCurrentHealth());
+            assertEquals(0f, localPlayerHealth.getMaxHealth());
+
+            // changes of the former character do not affect the health of the new one
+            HealthComponent health = first.getComponent(HealthComponent.class);
+            health.currentHealth = 80;
+            first.saveComponent(health);
+            assertEquals(0f, localPlayerHealth.getCurrentHealth());
+
+            setCharacter(first);
+            assertEquals(80f, localPlayerHealth.getCurrentHealth());
+            assertEquals(100f, localPlayerHealth.getMaxHealth());
+        } finally {
+            setCharacter(previous);
+            first.destroy();
+            second.destroy();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.registry.In;
+import org.terasology.logic.health.event.AddMaxHealthModifierEvent;
+import org.terasology.logic.health.event.ChangeMaxHealthEvent;
+import org.terasology.logic.health.event.MaxHealthChangedEvent;
+import org.terasology.logic.health.event.RemoveMaxHealthModifierEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class MaxHealthModifierTest {
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+
+    EntityRef createEntity(int currentHealth) {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = currentHealth;
+        return entityManager.create(health);
+    }
+
+    int maxHealth(EntityRef entity) {
+        return entity.getComponent(HealthComponent.class).maxHealth;
+    }
+
+    @Test
+    public void modifiersAreAppliedInOrder() {
+        EntityRef entity = createEntity(100);
+
+        entity.send(AddMaxHealthModifierEvent.postAdd("test:ring", 5));
+        assertEquals(105, maxHealth(entity));
+        entity.send(AddMaxHealthModifierEvent.multiply("test:amulet", 2));
+        assertEquals(205, maxHealth(entity));
+        entity.send(AddMaxHealthModifierEvent.add("test:armor", 10));
+        assertEquals(225, maxHealth(entity));
+
+        entity.send(new RemoveMaxHealthModifierEvent("test:amulet"));
+        assertEquals(115, maxHealth(entity));
+    }
+
+    @Test
+    public void removingLastModifierRestoresBaseValue() {
+        EntityRef entity = createEntity(100);
+
+        entity.send(AddMaxHealthModifierEvent.add("test:armor", 0.1f));
+        entity.send(AddMaxHealthModifierEvent.multiply("test:amulet", 0));
+        assertEquals(1, maxHealth(entity));
+
+        entity.send(new RemoveMaxHealthModifierEvent("test:amulet"));
+        entity.send(new RemoveMaxHealthModifierEvent("test:armor"));
+        assertEquals(100, maxHealth(entity));
+        assertFalse(entity.hasComponent(MaxHealthModifiersComponent.class));
+    }
+
+    @Test
+    public void repeatedModifiersDoNotDrift() {
+        EntityRef entity = createEntity(100);
+        entity.send(AddMaxHealthModifierEvent.add("test:gear", 0.3f));
+        entity.send(AddMaxHealthModifierEvent.multiply("test:gear2", 1.1f));
+
+        for (int i = 0; i < 1000; i++) {
+            entity.send(AddMaxHealthModifierEvent.add("test:buff", 1.1f));
+            entity.send(AddMaxHealthModifierEvent.multiply("test:buff2", 1.1f));
+            entity.send(new RemoveMaxHealthModifierEvent("test:buff"));
+            entity.send(new RemoveMaxHealthModifierEvent("test:buff2"));
+        }
+
+        MaxHealthModifiersComponent modifiers = entity.getComponent(MaxHealthModifiersComponent.class);
+        assertEquals(0.3f, modifiers.additionSum);
+        assertEquals(1.1f, modifiers.multiplierProduct);
+        assertEquals(110, maxHealth(entity));
+
+        entity.send(new RemoveMaxHealthModifierEvent("test:gear"));
+        entity.send(new RemoveMaxHealthModifierEvent("test:gear2"));
+        assertEquals(100, maxHealth(entity));
+        assertFalse(entity.hasComponent(MaxHealthModifiersComponent.class));
+    }
+
+    @Test
+    public void directlySetMaxHealthIsKept() {
+        EntityRef entity = createEntity(100);
+        entity.send(AddMaxHealthModifierEvent.add("test:armor", 10));
+        entity.send(AddMaxHealthModifierEvent.multiply("test:amulet", 2));
+        assertEquals(220, maxHealth(entity));
+
+        // as the setMaxHealth command does
+        HealthComponent health = entity.getComponent(HealthComponent.class);
+        health.maxHealth = 60;
+        entity.saveComponent(health);
+        assertEquals(20f, entity.getComponent(MaxHealthModifiersComponent.class).baseValue);
+
+        entity.send(AddMaxHealthModifierEvent.postAdd("test:ring", 5));
+        assertEquals(65, maxHealth(entity));
+        entity.send(new RemoveMaxHealthModifierEvent("test:ring"));
+        entity.send(new RemoveMaxHealthModifierEvent("test:amulet"));
+        entity.send(new RemoveMaxHealthModifierEvent("test:armor"));
+        assertEquals(20, maxHealth(entity));
+    }
+
+    @Test
+    public void notificationOnlyOnEffectiveChange() {
+        TestEventReceiver<MaxHealthChangedEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                MaxHealthChangedEvent.class);
+        List<MaxHealthChangedEvent> events = receiver.getEvents();
+        EntityRef entity = createEntity(100);
+
+        entity.send(AddMaxHealthModifierEvent.add("test:armor", 10));
+        assertEquals(1, events.size());
+        entity.send(AddMaxHealthModifierEvent.add("test:armor", 10));
+        entity.send(new RemoveMaxHealthModifierEvent("test:unknown"));
+        entity.send(new ChangeMaxHealthEvent(100));
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void reducedMaxHealthCapsCurrentHealth() {
+        EntityRef entity = createEntity(100);
+
+        entity.send(AddMaxHealthModifierEvent.multiply("test:curse", 0.5f));
+        assertEquals(50, maxHealth(entity));
+        assertEquals(50, entity.getComponent(HealthComponent.class).currentHealth);
+        assertTrue(entity.hasComponent(MaxHealthModifiersComponent.class));
+    }
+}
@@ -4,20 +4,34 @@
 package org.terasology.logic.health;
 
 
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.logic.players.PlayerCharacterComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.network.NetworkComponent;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.world.block.BlockComponent;
+import org.terasology.engine.world.block.BlockManager;
 import org.terasology.logic.health.event.ActivateRegenEvent;
 import org.terasology.logic.health.event.DeactivateRegenEvent;
 import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.HealthUpdateEvent;
 import org.terasology.moduletestingenvironment.MTEExtension;
 import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
 import org.terasology.moduletestingenvironment.extension.Dependencies;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -28,12 +42,18 @@ public class RegenTest {
 
     private static final float BUFFER = 0.2f; // 200 ms buffer time
 
+    private static final Vector3ic FAR_BLOCK_POSITION = new Vector3i(0, 10000, 0);
+
     @In
     protected EntityManager entityManager;
     @In
     protected Time time;
     @In
     protected ModuleTestingHelper helper;
+    @In
+    protected BlockManager blockManager;
+    @In
+    protected RegenAuthoritySystem regenAuthoritySystem;
 
     EntityRef createNewPlayer(int currentHealth, int regenRate) {
         HealthComponent healthComponent = new HealthComponent();
@@ -124,4 +144,101 @@ public class RegenTest {
 
         assertEquals(player.getComponent(HealthComponent.class).currentHealth, 100);
     }
+
+    EntityRef createDamagedBlock(Vector3ic position) {
+        HealthComponent healthComponent = new HealthComponent();
+        healthComponent.currentHealth = 100;
+        healthComponent.maxHealth = 1000;
+        return entityManager.create(healthComponent,
+                new BlockComponent(blockManager.getBlock("health:test"), position));
+    }
+
+    /**
+     * Creates a client whose character is at the given position, so that blocks around it are repaired every second.
+     */
+    EntityRef createClient(Vector3fc position) {
+        ClientComponent clientComponent = new ClientComponent();
+        clientComponent.character = entityManager.create(new LocationComponent(position));
+        return entityManager.create(clientComponent);
+    }
+
+    int currentHealth(EntityRef entity) {
+        return entity.getComponent(HealthComponent.class).currentHealth;
+    }
+
+    @Test
+    public void farBlockIsRepairedInCoarseSteps() {
+        EntityRef block = createDamagedBlock(FAR_BLOCK_POSITION);
+
+        block.send(new ActivateRegenEvent(10));
+        assertFalse(helper.runUntil(1000, () -> currentHealth(block) > 100), "time out");
+        assertEquals(110, currentHealth(block));
+
+        // the block is not repaired until the next coarse step ...
+        helper.runWhile(3000, () -> true);
+        assertEquals(110, currentHealth(block));
+
+        // ... which applies the repair of the whole step at once
+        assertFalse(helper.runUntil(10000, () -> currentHealth(block) > 110), "time out");
+        assertEquals(210, currentHealth(block));
+    }
+
+    @Test
+    public void farBlockKeepsRepairWhenPlayerApproaches() {
+        EntityRef block = createDamagedBlock(FAR_BLOCK_POSITION);
+
+        block.send(new ActivateRegenEvent(10));
+        assertFalse(helper.runUntil(1000, () -> currentHealth(block) > 100), "time out");
+        EntityRef client = createClient(new Vector3f(FAR_BLOCK_POSITION.x(), FAR_BLOCK_POSITION.y(),
+                FAR_BLOCK_POSITION.z() + 10));
+        try {
+            // the approach is noticed at the next coarse step, which still applies the repair of the whole step
+            assertFalse(helper.runUntil(10000, () -> currentHealth(block) > 110), "time out");
+            assertEquals(210, currentHealth(block));
+
+            // afterwards, the block is repaired every second again
+            assertFalse(helper.runUntil(1500, () -> currentHealth(block) > 210), "time out");
+            assertEquals(220, currentHealth(block));
+        } finally {
+            client.getComponent(ClientComponent.class).character.destroy();
+            client.destroy();
+        }
+    }
+
+    @Test
+    public void healthIsSavedOncePerSyncInterval() {
+        long syncInterval = regenAuthoritySystem.getHealthSyncInterval();
+        regenAuthoritySystem.setHealthSyncInterval(3000);
+        HealthComponent healthComponent = new HealthComponent();
+        healthComponent.currentHealth = 10;
+        healthComponent.maxHealth = 100;
+        EntityRef entity = entityManager.create(healthComponent, new NetworkComponent());
+        // every save of the health component is replicated to the clients within the next network tick
+        List<Integer> savedHealth = new ArrayList<>();
+        List<Long> saveTimes = new ArrayList<>();
+        new TestEventReceiver<>(helper.getHostContext(), HealthUpdateEvent.class, (event, client) -> {
+            if (event.getEntity().equals(entity) && event.getCurrentHealth() > 10) {
+                savedHealth.add(event.getCurrentHealth());
+                saveTimes.add(time.getGameTimeInMs());
+            }
+        });
+        EntityRef client = createClient(new Vector3f());
+        try {
+            entity.send(new ActivateRegenEvent(10));
+            assertFalse(helper.runUntil(15000, () -> currentHealth(entity) >= 100), "time out");
+            helper.runWhile(200, () -> true);
+
+            // 9 regeneration ticks, but only saved on the ticks crossing a sync interval and when fully healed
+            assertTrue(savedHealth.size() >= 2 && savedHealth.size() <= 5, savedHealth.toString());
+            assertEquals(100, (int) savedHealth.get(savedHealth.size() - 1));
+            for (int i = 1; i < savedHealth.size() - 1; i++) {
+                assertTrue(saveTimes.get(i) - saveTimes.get(i - 1) >= 2000, saveTimes.toString());
+                assertTrue(savedHealth.get(i) - savedHealth.get(i - 1) >= 20, savedHealth.toString());
+            }
+        } finally {
+            regenAuthoritySystem.setHealthSyncInterval(syncInterval);
+            client.getComponent(ClientComponent.class).character.destroy();
+            client.destroy();
+        }
+    }
 }
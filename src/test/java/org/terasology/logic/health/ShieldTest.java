@@ -0,0 +1,108 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.logic.health;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.health.EngineDamageTypes;
+import org.terasology.engine.registry.In;
+import org.terasology.logic.health.event.AddShieldEvent;
+import org.terasology.logic.health.event.DoDamageEvent;
+import org.terasology.logic.health.event.OnDamagedEvent;
+import org.terasology.logic.health.event.RemoveShieldEvent;
+import org.terasology.moduletestingenvironment.MTEExtension;
+import org.terasology.moduletestingenvironment.ModuleTestingHelper;
+import org.terasology.moduletestingenvironment.TestEventReceiver;
+import org.terasology.moduletestingenvironment.extension.Dependencies;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MTEExtension.class)
+@Dependencies({"Health"})
+public class ShieldTest {
+
+    private static final long BUFFER = 200; // 200 ms buffer time
+
+    @In
+    protected EntityManager entityManager;
+    @In
+    protected ModuleTestingHelper helper;
+    @In
+    protected ShieldAuthoritySystem shieldAuthoritySystem;
+
+    EntityRef createEntity() {
+        HealthComponent health = new HealthComponent();
+        health.maxHealth = 100;
+        health.currentHealth = 100;
+        return entityManager.create(health);
+    }
+
+    int currentHealth(EntityRef entity) {
+        return entity.getComponent(HealthComponent.class).currentHealth;
+    }
+
+    @Test
+    public void shieldAbsorbsDamage() {
+        TestEventReceiver<OnDamagedEvent> receiver = new TestEventReceiver<>(helper.getHostContext(),
+                OnDamagedEvent.class);
+        List<OnDamagedEvent> events = receiver.getEvents();
+        EntityRef entity = createEntity();
+        entity.send(new AddShieldEvent("test:shield", 15));
+
+        entity.send(new DoDamageEvent(10));
+        assertEquals(100, currentHealth(entity));
+        assertTrue(events.isEmpty());
+
+        entity.send(new DoDamageEvent(10));
+        assertEquals(95, currentHealth(entity));
+        assertEquals(1, events.size());
+        assertFalse(entity.hasComponent(ShieldComponent.class));
+    }
+
+    @Test
+    public void shieldsAbsorbInOrder() {
+        EntityRef entity = createEntity();
+        entity.send(new AddShieldEvent("test:first", 5));
+        entity.send(new AddShieldEvent("test:second", 20));
+
+        entity.send(new DoDamageEvent(10));
+        assertEquals(100, currentHealth(entity));
+        assertEquals(15, shieldAuthoritySystem.getShieldAmount(entity, null));
+        assertEquals(1, entity.getComponent(ShieldComponent.class).shields.size());
+
+        entity.send(new RemoveShieldEvent("test:second"));
+        assertFalse(entity.hasComponent(ShieldComponent.class));
+    }
+
+    @Test
+    public void shieldOnlyAbsorbsItsDamageType() {
+        EntityRef entity = createEntity();
+        entity.send(new AddShieldEvent("test:ward", 20, EngineDamageTypes.PHYSICAL.get(), -1));
+
+        entity.send(new DoDamageEvent(10, EngineDamageTypes.DIRECT.get()));
+        assertEquals(90, currentHealth(entity));
+
+        entity.send(new DoDamageEvent(10, EngineDamageTypes.PHYSICAL.get()));
+        assertEquals(90, currentHealth(entity));
+        assertEquals(10, shieldAuthoritySystem.getShieldAmount(entity, EngineDamageTypes.PHYSICAL.get()));
+    }
+
+    @Test
+    public void shieldExpires() {
+        EntityRef entity = createEntity();
+        entity.send(new AddShieldEvent("test:shield", 20, null, 1));
+        assertTrue(entity.hasComponent(ShieldComponent.class));
+
+        assertFalse(helper.runUntil(1000 + 2 * BUFFER, () -> !entity.hasComponent(ShieldComponent.class)), "time out");
+
+        entity.send(new DoDamageEvent(10));
+        assertEquals(90, currentHealth(entity));
+    }
+}
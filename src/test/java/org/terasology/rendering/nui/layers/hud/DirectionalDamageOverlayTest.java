@@ -0,0 +1,113 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.rendering.nui.layers.hud;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.math.Direction;
+import org.terasology.engine.registry.InjectionHelper;
+import org.terasology.nui.Canvas;
+import org.terasology.nui.Color;
+import org.terasology.nui.widgets.UIImage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectionalDamageOverlayTest {
+
+    private static final int ITERATIONS = 10_000;
+    /** Slack for the allocation measurement itself, far below one allocation per iteration. */
+    private static final long MEASUREMENT_SLACK_BYTES = 1024;
+
+    DirectionalDamageOverlay overlay;
+    Canvas canvas;
+    /** The in-game time returned by the stubbed {@link Time}, boxed by the caller so that reading it does not allocate. */
+    Float gameTime = 0f;
+    UIImage top;
+    UIImage right;
+    UIImage left;
+    UIImage bottom;
+
+    static UIImage indicator() {
+        UIImage image = new UIImage();
+        image.setTint(new Color(1f, 1f, 1f, 1f));
+        return image;
+    }
+
+    /**
+     * A stub of the given interface, as the overlay only reads the game time and does not draw itself onto the canvas.
+     */
+    <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> method.getName().equals("getGameTime") ? gameTime : null));
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @BeforeEach
+    void setup() {
+        overlay = new DirectionalDamageOverlay();
+        ContextImpl context = new ContextImpl();
+        context.put(Time.class, stub(Time.class));
+        InjectionHelper.inject(overlay, context);
+        canvas = stub(Canvas.class);
+        top = indicator();
+        right = indicator();
+        left = indicator();
+        bottom = indicator();
+        overlay.setIndicators(top, right, left, bottom);
+    }
+
+    void draw(float currentTime) {
+        gameTime = currentTime;
+        overlay.onDraw(canvas);
+    }
+
+    @Test
+    void showsIndicatorUntilDurationPassed() {
+        gameTime = 10f;
+        overlay.show(Direction.LEFT, 0.5f);
+
+        draw(10.2f);
+        assertTrue(left.isVisible());
+        assertFalse(right.isVisible());
+
+        draw(10.6f);
+        assertFalse(left.isVisible());
+    }
+
+    @Test
+    void showAndDrawDoNotAllocate() {
+        Float[] gameTimes = new Float[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            gameTimes[i] = i * 0.016f;
+        }
+        // warm up, so that all involved code is loaded and compiled
+        runShowAndDraw(gameTimes);
+
+        long before = allocatedBytes();
+        runShowAndDraw(gameTimes);
+        long allocated = allocatedBytes() - before;
+
+        assertTrue(allocated < MEASUREMENT_SLACK_BYTES,
+                "expected no allocation in show and onDraw, but " + allocated + " bytes were allocated");
+    }
+
+    private void runShowAndDraw(Float[] gameTimes) {
+        for (Float currentTime : gameTimes) {
+            gameTime = currentTime;
+            overlay.show(Direction.FORWARD, 0.5f);
+            overlay.show(Direction.BACKWARD, 0.5f);
+            overlay.onDraw(canvas);
+        }
+    }
+}
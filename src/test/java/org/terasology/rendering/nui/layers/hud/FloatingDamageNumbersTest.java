@@ -0,0 +1,109 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.rendering.nui.layers.hud;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.nui.widgets.UILabel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FloatingDamageNumbersTest {
+
+    EntityManager entityManager;
+    FloatingDamageNumbers damageNumbers;
+    Vector3f position;
+
+    @BeforeEach
+    void setup() {
+        entityManager = new PojoEntityManager();
+        damageNumbers = new FloatingDamageNumbers();
+        damageNumbers.initialise();
+        position = new Vector3f();
+    }
+
+    @Test
+    void hitsWithinAggregationWindowAreAdded() {
+        EntityRef target = entityManager.create();
+
+        damageNumbers.show(target, 5, position, 10f);
+        UILabel label = damageNumbers.findLabel(target, 10f);
+        assertEquals("5", label.getText());
+
+        // the window starts again with each aggregated hit
+        damageNumbers.show(target, 7, position, 10.3f);
+        damageNumbers.show(target, 1, position, 10.6f);
+        assertSame(label, damageNumbers.findLabel(target, 10.6f));
+        assertEquals("13", label.getText());
+    }
+
+    @Test
+    void hitsAfterAggregationWindowStartNewNumber() {
+        EntityRef target = entityManager.create();
+        damageNumbers.show(target, 5, position, 10f);
+        UILabel first = damageNumbers.findLabel(target, 10f);
+
+        float later = 10f + FloatingDamageNumbers.AGGREGATION_WINDOW + 0.1f;
+        damageNumbers.show(target, 3, position, later);
+
+        UILabel second = damageNumbers.findLabel(target, later);
+        assertNotSame(first, second);
+        assertEquals("5", first.getText());
+        assertEquals("3", second.getText());
+    }
+
+    @Test
+    void hitsOnDifferentTargetsAreNotAdded() {
+        EntityRef first = entityManager.create();
+        EntityRef second = entityManager.create();
+
+        damageNumbers.show(first, 5, position, 10f);
+        damageNumbers.show(second, 3, position, 10f);
+
+        assertEquals("5", damageNumbers.findLabel(first, 10f).getText());
+        assertEquals("3", damageNumbers.findLabel(second, 10f).getText());
+        assertNotSame(damageNumbers.findLabel(first, 10f), damageNumbers.findLabel(second, 10f));
+    }
+
+    @Test
+    void labelOfExpiredNumberIsReused() {
+        EntityRef first = entityManager.create();
+        EntityRef second = entityManager.create();
+        damageNumbers.show(first, 5, position, 10f);
+        UILabel label = damageNumbers.findLabel(first, 10f);
+
+        float later = 10f + FloatingDamageNumbers.DURATION + 0.1f;
+        assertNull(damageNumbers.findLabel(first, later));
+        damageNumbers.show(second, 3, position, later);
+
+        assertSame(label, damageNumbers.findLabel(second, later));
+        assertEquals("3", label.getText());
+    }
+
+    @Test
+    void oldestNumberIsReplacedWhenPoolIsExhausted() {
+        EntityRef oldest = entityManager.create();
+        damageNumbers.show(oldest, 1, position, 10f);
+        UILabel label = damageNumbers.findLabel(oldest, 10f);
+        for (int i = 1; i < FloatingDamageNumbers.POOL_SIZE; i++) {
+            damageNumbers.show(entityManager.create(), 1, position, 10f + i * 0.01f);
+        }
+        assertNotNull(damageNumbers.findLabel(oldest, 10.5f));
+
+        EntityRef newest = entityManager.create();
+        damageNumbers.show(newest, 2, position, 10.5f);
+
+        assertNull(damageNumbers.findLabel(oldest, 10.5f));
+        assertSame(label, damageNumbers.findLabel(newest, 10.5f));
+        assertEquals("2", label.getText());
+    }
+}